@@ -0,0 +1,155 @@
+package com.udacity.stockhawk;
+
+import java.text.DateFormat;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Thread safe formatting of the quote values and dates.
+ * <p>
+ * Java formatters are mutable (not thread safe) and quite expensive to create. Widget
+ * is formatting values on the binder threads, loaders on the background threads and lists
+ * on the main thread, so instead of sharing formatters, every thread has its own set of them.
+ * Formatters are configured once and cached by the locale (and the pattern in case of dates).
+ */
+final class QuoteFormat {
+
+    private static final ThreadLocal<Formats> FORMATS = new ThreadLocal<>();
+
+    private QuoteFormat() {
+    }
+
+    static String formatPrice(float price) {
+        Formats formats = formats();
+        if (price == 0) {
+            return formats.zeroPrice;
+        }
+
+        return formats.price.format(price);
+    }
+
+    static String formatAbsoluteChange(float value) {
+        Formats formats = formats();
+        if (value == 0) {
+            return formats.zeroAbsoluteChange;
+        }
+
+        return formats.absoluteChange.format(value);
+    }
+
+    /**
+     * Format a percentage change.
+     *
+     * @param value fraction of the change (0.01 is a one percent)
+     * @return formatted percentage change
+     */
+    static String formatPercentageChange(float value) {
+        Formats formats = formats();
+        if (value == 0) {
+            return formats.zeroPercentageChange;
+        }
+
+        // Only the gain has an explicit sign prefix.
+        if (value > 0) {
+            return formats.positivePercentageChange.format(value);
+        }
+
+        return formats.percentageChange.format(value);
+    }
+
+    static String formatDate(long timestamp, TimeZone timeZone, int style) {
+        Formats formats = formats();
+        String key = String.valueOf(style);
+        DateFormat formatter = formats.dates.get(key);
+        if (formatter == null) {
+            formatter = DateFormat.getDateInstance(style, formats.locale);
+            formats.dates.put(key, formatter);
+        }
+
+        formatter.setTimeZone(timeZone);
+        return formatter.format(timestamp);
+    }
+
+    static String formatDate(long timestamp, TimeZone timeZone, String pattern) {
+        Formats formats = formats();
+        DateFormat formatter = formats.dates.get(pattern);
+        if (formatter == null) {
+            formatter = new SimpleDateFormat(pattern, formats.locale);
+            formats.dates.put(pattern, formatter);
+        }
+
+        formatter.setTimeZone(timeZone);
+        return formatter.format(timestamp);
+    }
+
+    /**
+     * Get formatters of the current thread for the current locale.
+     * Formatters are created again only when default locale has been changed.
+     *
+     * @return formatters which can be safely used by the current thread
+     */
+    private static Formats formats() {
+        Locale locale = Locale.getDefault();
+        Formats formats = FORMATS.get();
+        if (formats == null || !formats.locale.equals(locale)) {
+            formats = new Formats(locale);
+            FORMATS.set(formats);
+        }
+
+        return formats;
+    }
+
+    /**
+     * Formatters of the single thread.
+     */
+    private static class Formats {
+
+        final Locale locale;
+
+        // Prices are always in dollars.
+        final DecimalFormat price = createCurrencyFormat();
+        final DecimalFormat absoluteChange = createCurrencyFormat();
+        final DecimalFormat percentageChange;
+        final DecimalFormat positivePercentageChange;
+
+        // Prices and changes are very often equal to zero (e.g. outside market hours).
+        final String zeroPrice;
+        final String zeroAbsoluteChange;
+        final String zeroPercentageChange;
+
+        // Date formatters by the style or the pattern.
+        final Map<String, DateFormat> dates = new HashMap<>();
+
+        Formats(Locale locale) {
+            this.locale = locale;
+
+            absoluteChange.setPositivePrefix("+$");
+            percentageChange = createPercentFormat(locale);
+            positivePercentageChange = createPercentFormat(locale);
+            positivePercentageChange.setPositivePrefix("+");
+
+            zeroPrice = price.format(0);
+            zeroAbsoluteChange = absoluteChange.format(0);
+            zeroPercentageChange = percentageChange.format(0);
+        }
+
+        private static DecimalFormat createCurrencyFormat() {
+            DecimalFormat format = (DecimalFormat) NumberFormat.getCurrencyInstance(Locale.US);
+            format.setMinimumFractionDigits(2);
+            format.setMaximumFractionDigits(2);
+            return format;
+        }
+
+        private static DecimalFormat createPercentFormat(Locale locale) {
+            DecimalFormat format = (DecimalFormat) NumberFormat.getPercentInstance(locale);
+            format.setMinimumFractionDigits(2);
+            format.setMaximumFractionDigits(2);
+            return format;
+        }
+    }
+}
@@ -3,15 +3,22 @@ package com.udacity.stockhawk;
 import android.app.Application;
 
 import com.facebook.stetho.Stetho;
+import com.udacity.stockhawk.api.HttpClient;
+
+import java.io.File;
 
 import timber.log.Timber;
 
 public class StockHawkApp extends Application {
 
+    private static final String HTTP_CACHE_DIRECTORY = "http";
+
     @Override
     public void onCreate() {
         super.onCreate();
 
+        HttpClient.setCacheDirectory(new File(getCacheDir(), HTTP_CACHE_DIRECTORY));
+
         if (BuildConfig.DEBUG) {
             Timber.uprootAll();
             Timber.plant(new Timber.DebugTree());
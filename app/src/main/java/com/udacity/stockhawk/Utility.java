@@ -5,69 +5,14 @@ import android.net.ConnectivityManager;
 import android.net.NetworkInfo;
 import android.support.v4.content.ContextCompat;
 
-import java.math.BigDecimal;
 import java.text.DateFormat;
-import java.text.DecimalFormat;
-import java.text.NumberFormat;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.Locale;
-
-import yahoofinance.histquotes.HistoricalQuote;
 
 /**
  * Utility class.
  */
 public class Utility {
 
-    // Price and changes formatters.
-    private static final DecimalFormat priceFormat =
-            (DecimalFormat) NumberFormat.getCurrencyInstance(Locale.US);
-
-    private static final DecimalFormat absoluteChangeFormat =
-            (DecimalFormat) NumberFormat.getCurrencyInstance(Locale.US);
-
-    private static final DecimalFormat percentageChangeFormat =
-            (DecimalFormat) NumberFormat.getPercentInstance(Locale.getDefault());
-
-    /**
-     * Parse a string which contains historical stock quotes (date and closing value).
-     * This method is used for parsing a data which we storing in history column of quotes table.
-     *
-     * @param history string
-     * @return list of the history quotes
-     */
-    public static ArrayList<HistoricalQuote> parseHistoryString(String history) {
-        ArrayList<HistoricalQuote> historicalQuotes = new ArrayList<>();
-
-        if (history.isEmpty())
-            return historicalQuotes;
-
-        String[] lines = history.split("\\n");
-        for (String line : lines) {
-            String[] historyChunks = line.split(", ");
-
-            if (historyChunks.length == 2) {
-                // Create a calendar from timestamp.
-                Calendar calendar = Calendar.getInstance();
-                calendar.setTimeInMillis(Long.valueOf(historyChunks[0]));
-
-                // Create price in big decimal value
-                BigDecimal price = new BigDecimal(historyChunks[1]);
-
-                // Create historicalQuote object
-                HistoricalQuote historicalQuote = new HistoricalQuote();
-                historicalQuote.setDate(calendar);
-                historicalQuote.setClose(price);
-
-                historicalQuotes.add(historicalQuote);
-            }
-        }
-
-        return historicalQuotes;
-    }
-
     /**
      * Format price.
      *
@@ -78,10 +23,8 @@ public class Utility {
         if (price == null) {
             price = 0f;
         }
-        priceFormat.setMinimumFractionDigits(2);
-        priceFormat.setMaximumFractionDigits(2);
 
-        return priceFormat.format(price);
+        return QuoteFormat.formatPrice(price);
     }
 
     /**
@@ -91,11 +34,7 @@ public class Utility {
      * @return formatted absolute change
      */
     public static String formatAbsoluteChange(float value) {
-        absoluteChangeFormat.setPositivePrefix("+$");
-        absoluteChangeFormat.setMinimumFractionDigits(2);
-        absoluteChangeFormat.setMaximumFractionDigits(2);
-
-        return absoluteChangeFormat.format(value);
+        return QuoteFormat.formatAbsoluteChange(value);
     }
 
     /**
@@ -105,15 +44,7 @@ public class Utility {
      * @return formatted percentage change
      */
     public static String formatPercentageChange(float value) {
-        value /= 100;
-        if (value > 0) {
-            percentageChangeFormat.setPositivePrefix("+");
-        }
-
-        percentageChangeFormat.setMinimumFractionDigits(2);
-        percentageChangeFormat.setMaximumFractionDigits(2);
-
-        return percentageChangeFormat.format(value);
+        return QuoteFormat.formatPercentageChange(value / 100);
     }
 
     /**
@@ -138,9 +69,8 @@ public class Utility {
             return "";
         }
 
-        DateFormat formatter = SimpleDateFormat.getDateInstance(dateFormat);
-        formatter.setTimeZone(calendar.getTimeZone());
-        return formatter.format(calendar.getTimeInMillis());
+        return QuoteFormat.formatDate(
+                calendar.getTimeInMillis(), calendar.getTimeZone(), dateFormat);
     }
 
     /**
@@ -155,9 +85,8 @@ public class Utility {
             return "";
         }
 
-        DateFormat formatter = new SimpleDateFormat(dateFormat, Locale.getDefault());
-        formatter.setTimeZone(calendar.getTimeZone());
-        return formatter.format(calendar.getTimeInMillis());
+        return QuoteFormat.formatDate(
+                calendar.getTimeInMillis(), calendar.getTimeZone(), dateFormat);
     }
 
     /**
@@ -0,0 +1,104 @@
+package com.udacity.stockhawk.api;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import yahoofinance.histquotes.HistoricalQuote;
+
+/**
+ * Source which fetches quotes of many stocks with a limited number of symbols per request.
+ * <p>
+ * Long lists of symbols are split into chunks, which are fetched from the wrapped source
+ * in a pipeline and merged into a single result. A failed chunk fails the whole request,
+ * so it can be retried as a single request. History is fetched directly from the wrapped
+ * source.
+ */
+public class ChunkedQuoteSource implements QuoteSource {
+
+    /**
+     * Default maximum number of symbols in a single quotes request.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 50;
+
+    /**
+     * Number of chunk requests which can be executed at the same time. While one chunk
+     * is parsed, the next one is downloaded.
+     */
+    private static final int PIPELINE_DEPTH = 2;
+
+    private final QuoteSource mSource;
+    private final int mChunkSize;
+
+    public ChunkedQuoteSource(QuoteSource source) {
+        this(source, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param source    of the quotes and history
+     * @param chunkSize maximum number of symbols in a single quotes request
+     */
+    public ChunkedQuoteSource(QuoteSource source, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size should be greater than zero.");
+        }
+
+        mSource = source;
+        mChunkSize = chunkSize;
+    }
+
+    @Override
+    public Map<String, Quote> getQuotes(String[] symbols) throws IOException {
+        if (symbols.length <= mChunkSize) {
+            return mSource.getQuotes(symbols);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(PIPELINE_DEPTH);
+        try {
+            List<Future<Map<String, Quote>>> chunks = new ArrayList<>();
+            for (int start = 0; start < symbols.length; start += mChunkSize) {
+                final String[] chunk = Arrays.copyOfRange(
+                        symbols, start, Math.min(start + mChunkSize, symbols.length));
+                chunks.add(executor.submit(new Callable<Map<String, Quote>>() {
+                    @Override
+                    public Map<String, Quote> call() throws IOException {
+                        return mSource.getQuotes(chunk);
+                    }
+                }));
+            }
+
+            Map<String, Quote> result = new HashMap<>();
+            for (Future<Map<String, Quote>> chunk : chunks) {
+                result.putAll(chunk.get());
+            }
+
+            return result;
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof IOException) {
+                throw (IOException) exception.getCause();
+            }
+            throw new IOException(exception.getCause());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Fetching quotes has been interrupted");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public List<HistoricalQuote> getHistory(String symbol, Calendar from, Calendar to)
+            throws IOException {
+        return mSource.getHistory(symbol, from, to);
+    }
+}
@@ -0,0 +1,81 @@
+package com.udacity.stockhawk.api;
+
+/**
+ * Circuit breaker which stops calling an endpoint after repeated failures.
+ * <p>
+ * Breaker opens after {@code failureThreshold} consecutive failures and rejects requests
+ * for {@code openDuration}. Then a single trial request is allowed. If it succeeds breaker
+ * closes again, otherwise it stays open for another period.
+ * All methods take the current time as a parameter, so breaker does not depend
+ * on the system clock.
+ */
+public final class CircuitBreaker {
+
+    private final int mFailureThreshold;
+    private final long mOpenDuration;
+
+    private int mFailures;
+    private long mOpenedAt;
+    private boolean mOpen;
+    private boolean mTrial;
+
+    /**
+     * @param failureThreshold number of consecutive failures which opens the breaker
+     * @param openDuration     time in milliseconds for which requests are rejected
+     */
+    public CircuitBreaker(int failureThreshold, long openDuration) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Failure threshold should be greater than zero.");
+        }
+
+        mFailureThreshold = failureThreshold;
+        mOpenDuration = openDuration;
+    }
+
+    /**
+     * Check whether request can be sent.
+     *
+     * @param now current time in milliseconds
+     * @return true if request is allowed
+     */
+    public synchronized boolean allowRequest(long now) {
+        if (!mOpen) {
+            return true;
+        }
+
+        // Only one trial request at a time.
+        if (mTrial || now - mOpenedAt < mOpenDuration) {
+            return false;
+        }
+
+        mTrial = true;
+        return true;
+    }
+
+    public synchronized void recordSuccess() {
+        mFailures = 0;
+        mOpen = false;
+        mTrial = false;
+    }
+
+    /**
+     * Record a request which has been allowed, but has not been sent at all (e.g. it has been
+     * cancelled while waiting in a queue). It says nothing about the endpoint, so only
+     * a trial request is released and another one can be allowed.
+     */
+    public synchronized void recordSkipped() {
+        mTrial = false;
+    }
+
+    /**
+     * @param now current time in milliseconds
+     */
+    public synchronized void recordFailure(long now) {
+        mFailures++;
+        if (mTrial || mFailures >= mFailureThreshold) {
+            mOpen = true;
+            mOpenedAt = now;
+        }
+        mTrial = false;
+    }
+}
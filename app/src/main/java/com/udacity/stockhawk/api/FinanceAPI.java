@@ -1,51 +1,192 @@
 package com.udacity.stockhawk.api;
 
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.util.HashMap;
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TimeZone;
 
-import yahoofinance.Stock;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import timber.log.Timber;
 import yahoofinance.Utils;
 import yahoofinance.YahooFinance;
-import yahoofinance.quotes.stock.StockQuotesData;
+import yahoofinance.histquotes.HistoricalQuote;
+import yahoofinance.histquotes.Interval;
 
 /**
- * I've decided to resolve problem with special characters by overriding {@YahooFinance.getQuotes}
- * and call API by the {@FixedStockQuotesRequest} instead {@StockQuotesRequest}.
- *
- * It seems that author of this class does not predicted using a by the user a special characters,
- * or did not supposed that user will send symbol name which only contains a special chars.
- *
- * As I didn't want to only catch exception, without knowing which symbol has caused a problem -
- * because I want to delete it from preferences. I override {@YahooFinance.getQuotes} and
- * I'm sending request via {@FixedStockQuotesRequest}. In {@FixedStockQoutesRequest}
- * I'm overriding a parseCSVLine method, where I added an additional check if line is empty.
- * If line is empty then I'm creating a dummy object, if not then I'm calling this method from
- * super class. In this way I'm able to catch every invalid stock symbol and delete
- * it from preferences with proper notification.
+ * Quotes and history requested directly from the Yahoo Finance CSV API, through the shared
+ * {@link HttpClient}.
+ * <p>
+ * Library request parses every line of the response into 57 fields, although we need only
+ * a few of them, and it fails on the empty lines which are returned for symbols with special
+ * characters. So we are requesting only the needed fields and parse them with
+ * {@link QuoteCsvParser} while response is downloaded. Invalid symbols (including those with
+ * special characters) are simply missing in the result, so we are able to delete them
+ * from preferences with proper notification.
  */
-public class FinanceAPI extends YahooFinance {
+public final class FinanceAPI {
 
-    public static Map<String, Stock> get(String[] symbols) throws IOException {
-        return FinanceAPI.getQuotes(Utils.join(symbols, ","), false);
+    private static final TimeZone MARKET_TIME_ZONE = TimeZone.getTimeZone(YahooFinance.TIMEZONE);
+
+    private static final HttpUrl QUOTES_URL = HttpUrl.parse(YahooFinance.QUOTES_BASE_URL);
+    private static final HttpUrl HISTORY_URL = HttpUrl.parse(YahooFinance.HISTQUOTES_BASE_URL);
+
+    private FinanceAPI() {
+    }
+
+    /**
+     * Fetch quotes of the stocks in a single request.
+     *
+     * @param symbols of the stocks
+     * @return map of the stock symbols and their quotes
+     * @throws IOException when quotes could not be fetched
+     */
+    public static Map<String, Quote> get(String[] symbols) throws IOException {
+        return get(HttpClient.getInstance(), QUOTES_URL, symbols);
+    }
+
+    static Map<String, Quote> get(OkHttpClient client, HttpUrl baseUrl, String[] symbols)
+            throws IOException {
+        HttpUrl url = baseUrl.newBuilder()
+                .addQueryParameter("s", Utils.join(symbols, ","))
+                .addQueryParameter("f", QuoteCsvParser.FIELDS)
+                .addQueryParameter("e", ".csv")
+                .build();
+
+        ResponseBody body = execute(client, url);
+        try {
+            return QuoteCsvParser.parse(body.byteStream());
+        } finally {
+            body.close();
+        }
+    }
+
+    /**
+     * Fetch weekly history of the stock.
+     * <p>
+     * Weekly quotes are dated by the first day (Monday) of the week. When the range ends
+     * before the current week (see {@link #getStartOfWeek}), response contains only completed
+     * weeks, so it can be served from the cache.
+     *
+     * @param symbol of the valid stock
+     * @param from   date of the oldest quote
+     * @param to     date of the newest quote
+     * @return historical quotes
+     * @throws IOException when history could not be fetched
+     */
+    public static List<HistoricalQuote> getHistory(String symbol, Calendar from, Calendar to)
+            throws IOException {
+        return getHistory(HttpClient.getInstance(), HISTORY_URL, symbol, from, to);
+    }
+
+    static List<HistoricalQuote> getHistory(OkHttpClient client, HttpUrl baseUrl, String symbol,
+                                            Calendar from, Calendar to) throws IOException {
+        HttpUrl url = baseUrl.newBuilder()
+                .addQueryParameter("s", symbol)
+                .addQueryParameter("a", String.valueOf(from.get(Calendar.MONTH)))
+                .addQueryParameter("b", String.valueOf(from.get(Calendar.DAY_OF_MONTH)))
+                .addQueryParameter("c", String.valueOf(from.get(Calendar.YEAR)))
+                .addQueryParameter("d", String.valueOf(to.get(Calendar.MONTH)))
+                .addQueryParameter("e", String.valueOf(to.get(Calendar.DAY_OF_MONTH)))
+                .addQueryParameter("f", String.valueOf(to.get(Calendar.YEAR)))
+                .addQueryParameter("g", Interval.WEEKLY.getTag())
+                .addQueryParameter("ignore", ".csv")
+                .build();
+
+        ResponseBody body = execute(client, url);
+        try {
+            return parseHistory(symbol, new BufferedReader(body.charStream()));
+        } finally {
+            body.close();
+        }
     }
 
-    private static Map<String, Stock> getQuotes(
-            String query, boolean includeHistorical) throws IOException {
+    /**
+     * Find the start of the trading week (Monday midnight, market time) of the given date.
+     * Weekend belongs to the week which has just ended, so its quote is still the current one.
+     *
+     * @param date within the week
+     * @return start of the week
+     */
+    public static Calendar getStartOfWeek(Calendar date) {
+        Calendar startOfWeek = Calendar.getInstance(MARKET_TIME_ZONE, Locale.US);
+        startOfWeek.setTimeInMillis(date.getTimeInMillis());
+        startOfWeek.set(Calendar.HOUR_OF_DAY, 0);
+        startOfWeek.set(Calendar.MINUTE, 0);
+        startOfWeek.set(Calendar.SECOND, 0);
+        startOfWeek.set(Calendar.MILLISECOND, 0);
+        while (startOfWeek.get(Calendar.DAY_OF_WEEK) != Calendar.MONDAY) {
+            startOfWeek.add(Calendar.DAY_OF_MONTH, -1);
+        }
 
-        FixedStockQuotesRequest request = new FixedStockQuotesRequest(query);
-        List<StockQuotesData> quotes = request.getResult();
-        Map<String, Stock> result = new HashMap<>();
+        return startOfWeek;
+    }
 
-        for (StockQuotesData data : quotes) {
-            Stock s = data.getStock();
-            result.put(s.getSymbol(), s);
+    /**
+     * Execute the request.
+     *
+     * @param client which sends the request
+     * @param url    of the request
+     * @return body of the successful response, which has to be closed
+     * @throws IOException when request has failed
+     */
+    private static ResponseBody execute(OkHttpClient client, HttpUrl url) throws IOException {
+        Request request = new Request.Builder().url(url).build();
+        Response response = client.newCall(request).execute();
+        if (!response.isSuccessful()) {
+            response.close();
+            throw new IOException("Unexpected response " + response.code() + " for " + url);
         }
 
-        if (includeHistorical) {
-            for (Stock s : result.values()) {
-                s.getHistory();
+        return response.body();
+    }
+
+    /**
+     * Parse history CSV response (Date,Open,High,Low,Close,Volume,Adj Close).
+     * Malformed lines are skipped.
+     *
+     * @param symbol of the stock
+     * @param reader of the response
+     * @return historical quotes
+     * @throws IOException when response could not be read
+     */
+    private static List<HistoricalQuote> parseHistory(String symbol, BufferedReader reader)
+            throws IOException {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+        List<HistoricalQuote> result = new ArrayList<>();
+
+        // Skip the header.
+        reader.readLine();
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String[] data = line.split(",");
+            if (data.length < 7) {
+                continue;
+            }
+
+            try {
+                Calendar date = Calendar.getInstance();
+                date.setTime(dateFormat.parse(data[0]));
+                result.add(new HistoricalQuote(symbol, date,
+                        new BigDecimal(data[1]),
+                        new BigDecimal(data[3]),
+                        new BigDecimal(data[2]),
+                        new BigDecimal(data[4]),
+                        new BigDecimal(data[6]),
+                        Long.parseLong(data[5])));
+            } catch (ParseException | NumberFormatException exception) {
+                Timber.w("Invalid history line of the %s stock: %s", symbol, line);
             }
         }
 
@@ -0,0 +1,87 @@
+package com.udacity.stockhawk.api;
+
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import yahoofinance.YahooFinance;
+
+/**
+ * Network interceptor which makes weekly history responses cacheable.
+ * <p>
+ * API does not tell how long its responses are fresh. Quotes of the completed weeks don't
+ * change anymore, so a response whose range ends before the current week is fresh until
+ * the next week starts (then the range of the completed weeks changes anyway). After that
+ * cache revalidates it, if server has sent a validator (ETag or Last-Modified).
+ * Responses which include the current week are left as they are, because the quote
+ * of the current week changes until the week ends.
+ */
+final class HistoryCacheInterceptor implements Interceptor {
+
+    private static final TimeZone MARKET_TIME_ZONE = TimeZone.getTimeZone(YahooFinance.TIMEZONE);
+
+    private final String mHistoryPath;
+
+    /**
+     * @param historyUrl base URL of the history requests
+     */
+    HistoryCacheInterceptor(String historyUrl) {
+        mHistoryPath = HttpUrl.parse(historyUrl).encodedPath();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+        HttpUrl url = chain.request().url();
+        if (!response.isSuccessful() || !mHistoryPath.equals(url.encodedPath())) {
+            return response;
+        }
+
+        Calendar now = Calendar.getInstance(MARKET_TIME_ZONE, Locale.US);
+        Calendar startOfWeek = FinanceAPI.getStartOfWeek(now);
+        Calendar end = getEndOfRange(url);
+        if (end == null || !end.before(startOfWeek)) {
+            return response;
+        }
+
+        return response.newBuilder()
+                .removeHeader("Pragma")
+                .header("Cache-Control", "public, max-age=" + getSecondsToNextWeek(now))
+                .build();
+    }
+
+    /**
+     * @param now current time
+     * @return number of seconds to the start of the next trading week
+     */
+    static long getSecondsToNextWeek(Calendar now) {
+        Calendar nextWeek = FinanceAPI.getStartOfWeek(now);
+        nextWeek.add(Calendar.DAY_OF_MONTH, 7);
+        return Math.max(0, TimeUnit.MILLISECONDS.toSeconds(
+                nextWeek.getTimeInMillis() - now.getTimeInMillis()));
+    }
+
+    /**
+     * Read the date of the newest requested quote (d, e and f parameters of the request).
+     *
+     * @param url of the history request
+     * @return date in market time or null if request has no valid end of the range
+     */
+    static Calendar getEndOfRange(HttpUrl url) {
+        try {
+            Calendar end = Calendar.getInstance(MARKET_TIME_ZONE, Locale.US);
+            end.clear();
+            end.set(Integer.parseInt(url.queryParameter("f")),
+                    Integer.parseInt(url.queryParameter("d")),
+                    Integer.parseInt(url.queryParameter("e")));
+            return end;
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+}
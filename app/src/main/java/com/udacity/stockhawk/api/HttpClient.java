@@ -0,0 +1,101 @@
+package com.udacity.stockhawk.api;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import yahoofinance.YahooFinance;
+
+/**
+ * Single HTTP client shared by all requests to the API.
+ * <p>
+ * All requests go to the same few hosts, so sharing connections (keep-alive) saves us
+ * a DNS lookup and a handshake per request. Responses are transparently compressed (gzip).
+ * <p>
+ * History responses are stored in the disk cache (when its directory has been set),
+ * so history is downloaded at most once a week.
+ */
+public final class HttpClient {
+
+    /**
+     * Connect and read timeout of every request (in milliseconds).
+     */
+    private static final int TIMEOUT = 10000;
+
+    /**
+     * Maximum number of idle connections kept in the pool. It should not be lower than number
+     * of requests executed at the same time (e.g. history requests).
+     */
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+
+    private static final long KEEP_ALIVE = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * Maximum size of the disk cache in bytes. Least recently used responses are evicted.
+     */
+    private static final long CACHE_SIZE = 10 * 1024 * 1024;
+
+    private static final NetworkMetrics METRICS = new NetworkMetrics();
+
+    private static volatile OkHttpClient sClient;
+    private static File sCacheDirectory;
+
+    private HttpClient() {
+    }
+
+    /**
+     * Set directory of the disk cache. It has to be called before the first request.
+     *
+     * @param directory of the cache
+     */
+    public static synchronized void setCacheDirectory(File directory) {
+        sCacheDirectory = directory;
+    }
+
+    public static OkHttpClient getInstance() {
+        if (sClient == null) {
+            synchronized (HttpClient.class) {
+                if (sClient == null) {
+                    OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                            .connectTimeout(TIMEOUT, TimeUnit.MILLISECONDS)
+                            .readTimeout(TIMEOUT, TimeUnit.MILLISECONDS)
+                            .connectionPool(new ConnectionPool(
+                                    MAX_IDLE_CONNECTIONS, KEEP_ALIVE, TimeUnit.MILLISECONDS))
+                            .addNetworkInterceptor(METRICS)
+                            .addNetworkInterceptor(new HistoryCacheInterceptor(
+                                    YahooFinance.HISTQUOTES_BASE_URL));
+
+                    if (sCacheDirectory != null) {
+                        builder.cache(new Cache(sCacheDirectory, CACHE_SIZE));
+                    }
+
+                    sClient = builder.build();
+                }
+            }
+        }
+
+        return sClient;
+    }
+
+    /**
+     * @return summary of the disk cache usage or null when there is no cache
+     */
+    public static String getCacheStats() {
+        Cache cache = getInstance().cache();
+        if (cache == null) {
+            return null;
+        }
+
+        return cache.requestCount() + " requests, " + cache.hitCount() + " hits, "
+                + cache.networkCount() + " from network";
+    }
+
+    /**
+     * @return traffic metrics of the shared client
+     */
+    public static NetworkMetrics getMetrics() {
+        return METRICS;
+    }
+}
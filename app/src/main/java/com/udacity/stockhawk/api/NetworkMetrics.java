@@ -0,0 +1,80 @@
+package com.udacity.stockhawk.api;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/**
+ * Network interceptor which counts requests, bytes received over the wire (before gzip
+ * decompression) and latency of the responses.
+ */
+public final class NetworkMetrics implements Interceptor {
+
+    private final AtomicLong mRequests = new AtomicLong();
+    private final AtomicLong mBytesReceived = new AtomicLong();
+    private final AtomicLong mLatencyNanos = new AtomicLong();
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        long start = System.nanoTime();
+        Response response = chain.proceed(chain.request());
+        mLatencyNanos.addAndGet(System.nanoTime() - start);
+        mRequests.incrementAndGet();
+
+        ResponseBody body = response.body();
+        if (body == null) {
+            return response;
+        }
+
+        // Body is counted while it's read, because its length is often unknown (chunked).
+        ForwardingSource counter = new ForwardingSource(body.source()) {
+            @Override
+            public long read(Buffer sink, long byteCount) throws IOException {
+                long read = super.read(sink, byteCount);
+                if (read > 0) {
+                    mBytesReceived.addAndGet(read);
+                }
+                return read;
+            }
+        };
+
+        return response.newBuilder()
+                .body(ResponseBody.create(
+                        body.contentType(), body.contentLength(), Okio.buffer(counter)))
+                .build();
+    }
+
+    public long getRequestCount() {
+        return mRequests.get();
+    }
+
+    public long getBytesReceived() {
+        return mBytesReceived.get();
+    }
+
+    /**
+     * @return average time in milliseconds to receive response headers
+     */
+    public long getAverageLatency() {
+        long requests = mRequests.get();
+        if (requests == 0) {
+            return 0;
+        }
+
+        return TimeUnit.NANOSECONDS.toMillis(mLatencyNanos.get() / requests);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%d requests, %d bytes received, %d ms average latency",
+                getRequestCount(), getBytesReceived(), getAverageLatency());
+    }
+}
@@ -0,0 +1,49 @@
+package com.udacity.stockhawk.api;
+
+import java.util.Locale;
+
+/**
+ * Current quote of the stock.
+ */
+public final class Quote {
+
+    private final String mSymbol;
+    private final float mPrice;
+    private final float mChange;
+    private final float mChangeInPercent;
+
+    /**
+     * @param symbol          of the stock
+     * @param price           of the last trade
+     * @param change          of the price since the previous close
+     * @param changeInPercent of the price since the previous close (1.5 is 1.5%)
+     */
+    public Quote(String symbol, float price, float change, float changeInPercent) {
+        mSymbol = symbol;
+        mPrice = price;
+        mChange = change;
+        mChangeInPercent = changeInPercent;
+    }
+
+    public String getSymbol() {
+        return mSymbol;
+    }
+
+    public float getPrice() {
+        return mPrice;
+    }
+
+    public float getChange() {
+        return mChange;
+    }
+
+    public float getChangeInPercent() {
+        return mChangeInPercent;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%s %.2f %+.2f (%+.2f%%)",
+                mSymbol, mPrice, mChange, mChangeInPercent);
+    }
+}
@@ -0,0 +1,192 @@
+package com.udacity.stockhawk.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming parser of the quotes CSV response with the {@link #FIELDS} fields
+ * (symbol, last trade price, change and change in percent), e.g.:
+ * <pre>
+ * "AAPL",156.10,+1.20,"+0.77%"
+ * "XYZ",N/A,N/A,"N/A"
+ * </pre>
+ * Response is parsed byte by byte while it's downloaded. Numbers are parsed directly from
+ * the bytes, so only the symbol of every valid quote is allocated as a string.
+ * Quotes without a price (invalid symbols) and empty lines are skipped. Symbols are
+ * ASCII only, so quotes with any other byte in the symbol are skipped as well, instead of
+ * decoding it.
+ */
+final class QuoteCsvParser {
+
+    /**
+     * Fields which have to be requested from the API.
+     */
+    static final String FIELDS = "sl1c1p2";
+
+    private static final int FIELD_SYMBOL = 0;
+    private static final int FIELD_PRICE = 1;
+    private static final int FIELD_CHANGE = 2;
+    private static final int FIELD_CHANGE_IN_PERCENT = 3;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // Numbers longer than that can't be stored in the long, and are not needed anyway.
+    private static final int MAX_DIGITS = 18;
+
+    private static final float[] POWERS_OF_TEN = new float[MAX_DIGITS + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final Map<String, Quote> mQuotes = new HashMap<>();
+    private final StringBuilder mSymbol = new StringBuilder();
+    private final float[] mValues = new float[FIELD_CHANGE_IN_PERCENT + 1];
+
+    // State of the current line and field.
+    private int mField;
+    private boolean mEmptyLine = true;
+    private long mMantissa;
+    private int mDigits;
+    private int mScale;
+    private boolean mNegative;
+    private boolean mFraction;
+    private boolean mInvalid;
+    private boolean mInvalidSymbol;
+
+    private QuoteCsvParser() {
+    }
+
+    /**
+     * Parse quotes from the response.
+     *
+     * @param input stream of the response, it's not closed by the parser
+     * @return map of the stock symbols and their quotes
+     * @throws IOException when response could not be read
+     */
+    static Map<String, Quote> parse(InputStream input) throws IOException {
+        QuoteCsvParser parser = new QuoteCsvParser();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int count;
+        while ((count = input.read(buffer)) != -1) {
+            for (int i = 0; i < count; i++) {
+                parser.accept(buffer[i]);
+            }
+        }
+
+        parser.endLine();
+        return parser.mQuotes;
+    }
+
+    private void accept(byte b) {
+        // Any byte of a multi-byte UTF-8 character is negative.
+        if (b < 0) {
+            mEmptyLine = false;
+            if (mField == FIELD_SYMBOL) {
+                mInvalidSymbol = true;
+            } else {
+                mInvalid = true;
+            }
+            return;
+        }
+
+        char c = (char) b;
+        switch (c) {
+            case '\r':
+                return;
+            case '\n':
+                endLine();
+                return;
+            case ',':
+                endField();
+                mField++;
+                return;
+            case '"':
+                return;
+            default:
+                mEmptyLine = false;
+        }
+
+        if (mField == FIELD_SYMBOL) {
+            mSymbol.append(c);
+            return;
+        }
+
+        if (c >= '0' && c <= '9') {
+            if (mDigits < MAX_DIGITS) {
+                mMantissa = mMantissa * 10 + (c - '0');
+                mDigits++;
+                if (mFraction) {
+                    mScale++;
+                }
+            }
+        } else if (c == '.') {
+            mFraction = true;
+        } else if (c == '-') {
+            mNegative = true;
+        } else if (c != '+' && c != '%' && c != ' ') {
+            // e.g. N/A
+            mInvalid = true;
+        }
+    }
+
+    private void endField() {
+        if (mField > FIELD_SYMBOL && mField < mValues.length) {
+            float value = Float.NaN;
+            if (!mInvalid && mDigits > 0) {
+                value = mMantissa / POWERS_OF_TEN[mScale];
+                if (mNegative) {
+                    value = -value;
+                }
+            }
+            mValues[mField] = value;
+        }
+
+        mMantissa = 0;
+        mDigits = 0;
+        mScale = 0;
+        mNegative = false;
+        mFraction = false;
+        mInvalid = false;
+    }
+
+    private void endLine() {
+        if (mEmptyLine) {
+            resetLine();
+            return;
+        }
+
+        endField();
+
+        // Stock without a price does not exist. Its change can be missing e.g. on
+        // the first day of trading.
+        float price = mValues[FIELD_PRICE];
+        if (mField >= FIELD_PRICE && mSymbol.length() > 0 && !mInvalidSymbol
+                && !Float.isNaN(price)) {
+            String symbol = mSymbol.toString();
+            mQuotes.put(symbol, new Quote(symbol, price,
+                    orZero(mValues[FIELD_CHANGE]), orZero(mValues[FIELD_CHANGE_IN_PERCENT])));
+        }
+
+        resetLine();
+    }
+
+    private void resetLine() {
+        mField = FIELD_SYMBOL;
+        mEmptyLine = true;
+        mInvalidSymbol = false;
+        mSymbol.setLength(0);
+        for (int i = 0; i < mValues.length; i++) {
+            mValues[i] = Float.NaN;
+        }
+    }
+
+    private static float orZero(float value) {
+        return Float.isNaN(value) ? 0 : value;
+    }
+}
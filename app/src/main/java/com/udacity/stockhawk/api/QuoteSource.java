@@ -0,0 +1,36 @@
+package com.udacity.stockhawk.api;
+
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+
+import yahoofinance.histquotes.HistoricalQuote;
+
+/**
+ * Source of the stock quotes and their history.
+ */
+public interface QuoteSource {
+
+    /**
+     * Fetch current quotes of many stocks at once.
+     * Invalid symbols are missing in the result.
+     *
+     * @param symbols of the stocks
+     * @return map of the stock symbols and their quotes
+     * @throws IOException when quotes could not be fetched
+     */
+    Map<String, Quote> getQuotes(String[] symbols) throws IOException;
+
+    /**
+     * Fetch weekly history of the stock.
+     *
+     * @param symbol of the valid stock
+     * @param from   date of the oldest quote
+     * @param to     date of the newest quote
+     * @return historical quotes
+     * @throws IOException when history could not be fetched
+     */
+    List<HistoricalQuote> getHistory(String symbol, Calendar from, Calendar to)
+            throws IOException;
+}
@@ -0,0 +1,81 @@
+package com.udacity.stockhawk.api;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+/**
+ * Retries a request which has failed with an {@link IOException}.
+ * <p>
+ * Delays between attempts grow exponentially and are randomized ("full jitter"), so many
+ * requests which have failed at once don't retry at the same moment.
+ */
+public final class Retry {
+
+    private static final Random RANDOM = new Random();
+
+    private final int mAttempts;
+    private final long mBaseDelay;
+    private final long mMaxDelay;
+
+    /**
+     * @param attempts  maximum number of attempts (including the first one)
+     * @param baseDelay delay in milliseconds before the second attempt
+     * @param maxDelay  upper limit of the delay in milliseconds
+     */
+    public Retry(int attempts, long baseDelay, long maxDelay) {
+        if (attempts < 1) {
+            throw new IllegalArgumentException("Number of attempts should be greater than zero.");
+        }
+
+        mAttempts = attempts;
+        mBaseDelay = baseDelay;
+        mMaxDelay = maxDelay;
+    }
+
+    /**
+     * Call the request until it succeeds or attempts run out.
+     *
+     * @param request which should be called
+     * @param <T>     type of the result
+     * @return result of the request
+     * @throws IOException of the last attempt
+     */
+    public <T> T call(Callable<T> request) throws IOException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return request.call();
+            } catch (IOException exception) {
+                // Timeouts are retried, but interrupted request means that nobody is waiting.
+                if (attempt + 1 >= mAttempts || Thread.currentThread().isInterrupted()) {
+                    throw exception;
+                }
+            } catch (RuntimeException exception) {
+                throw exception;
+            } catch (Exception exception) {
+                throw new IOException(exception);
+            }
+
+            sleep(getDelay(attempt));
+        }
+    }
+
+    /**
+     * @param attempt number of the failed attempt, starting from zero
+     * @return random delay in milliseconds before the next attempt
+     */
+    long getDelay(int attempt) {
+        long limit = Math.min(mMaxDelay, mBaseDelay << Math.min(attempt, 20));
+        return (long) (RANDOM.nextDouble() * limit);
+    }
+
+    private static void sleep(long delay) throws IOException {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Retry has been interrupted");
+        }
+    }
+}
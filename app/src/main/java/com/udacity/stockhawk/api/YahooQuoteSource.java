@@ -0,0 +1,25 @@
+package com.udacity.stockhawk.api;
+
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+
+import yahoofinance.histquotes.HistoricalQuote;
+
+/**
+ * Quotes fetched from the Yahoo Finance API.
+ */
+public class YahooQuoteSource implements QuoteSource {
+
+    @Override
+    public Map<String, Quote> getQuotes(String[] symbols) throws IOException {
+        return FinanceAPI.get(symbols);
+    }
+
+    @Override
+    public List<HistoricalQuote> getHistory(String symbol, Calendar from, Calendar to)
+            throws IOException {
+        return FinanceAPI.getHistory(symbol, from, to);
+    }
+}
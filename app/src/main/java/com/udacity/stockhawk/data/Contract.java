@@ -11,6 +11,10 @@ public final class Contract {
     static final String AUTHORITY = "com.udacity.stockhawk";
     static final String PATH_QUOTE = "quote";
     static final String PATH_QUOTE_WITH_SYMBOL = "quote/*";
+    static final String PATH_HISTORY = "history";
+    static final String PATH_HISTORY_WITH_SYMBOL = "history/*";
+    static final String PATH_TICK = "tick";
+    static final String PATH_TICK_WITH_SYMBOL = "tick/*";
     private static final Uri BASE_URI = Uri.parse("content://" + AUTHORITY);
 
     private Contract() {
@@ -24,20 +28,17 @@ public final class Contract {
         public static final String COLUMN_PRICE = "price";
         public static final String COLUMN_ABSOLUTE_CHANGE = "absolute_change";
         public static final String COLUMN_PERCENTAGE_CHANGE = "percentage_change";
-        public static final String COLUMN_HISTORY = "history";
         public static final int POSITION_ID = 0;
         public static final int POSITION_SYMBOL = 1;
         public static final int POSITION_PRICE = 2;
         public static final int POSITION_ABSOLUTE_CHANGE = 3;
         public static final int POSITION_PERCENTAGE_CHANGE = 4;
-        public static final int POSITION_HISTORY = 5;
         public static final ImmutableList<String> QUOTE_COLUMNS = ImmutableList.of(
                 _ID,
                 COLUMN_SYMBOL,
                 COLUMN_PRICE,
                 COLUMN_ABSOLUTE_CHANGE,
-                COLUMN_PERCENTAGE_CHANGE,
-                COLUMN_HISTORY
+                COLUMN_PERCENTAGE_CHANGE
         );
         static final String TABLE_NAME = "quotes";
 
@@ -52,4 +53,84 @@ public final class Contract {
 
     }
 
+    /**
+     * Historical (weekly) closing prices of the stocks.
+     * <p>
+     * Every quote is stored in a separate row, so readers can fetch only a range of dates
+     * they need, e.g. history/AAPL?from=1483228800000&amp;to=1491004800000
+     * <p>
+     * History is not a descendant of the quote URI, so observers of the quotes list
+     * are not notified about changes of the history.
+     */
+    @SuppressWarnings("unused")
+    public static final class History {
+
+        public static final Uri URI = BASE_URI.buildUpon().appendPath(PATH_HISTORY).build();
+        public static final String COLUMN_SYMBOL = "symbol";
+        public static final String COLUMN_DATE = "date";
+        public static final String COLUMN_CLOSE = "close";
+        public static final String PARAM_FROM = "from";
+        public static final String PARAM_TO = "to";
+        public static final int POSITION_DATE = 0;
+        public static final int POSITION_CLOSE = 1;
+        public static final ImmutableList<String> HISTORY_COLUMNS = ImmutableList.of(
+                COLUMN_DATE,
+                COLUMN_CLOSE
+        );
+        static final String TABLE_NAME = "history";
+
+        public static Uri makeUriForStock(String symbol) {
+            return URI.buildUpon().appendPath(symbol).build();
+        }
+
+        public static Uri makeUriForRange(String symbol, long from, long to) {
+            return makeUriForStock(symbol).buildUpon()
+                    .appendQueryParameter(PARAM_FROM, String.valueOf(from))
+                    .appendQueryParameter(PARAM_TO, String.valueOf(to))
+                    .build();
+        }
+
+        static String getStockFromUri(Uri queryUri) {
+            return queryUri.getPathSegments().get(1);
+        }
+    }
+
+    /**
+     * Intraday prices of the stocks, recorded by every synchronization which has changed
+     * the quote. Only the most recent ticks of every stock are kept.
+     * <p>
+     * Readers can fetch a range of ticks, e.g. tick/AAPL?from=1491226200000&amp;to=1491249600000
+     */
+    @SuppressWarnings("unused")
+    public static final class Tick {
+
+        public static final Uri URI = BASE_URI.buildUpon().appendPath(PATH_TICK).build();
+        public static final String COLUMN_SYMBOL = "symbol";
+        public static final String COLUMN_TIMESTAMP = "timestamp";
+        public static final String COLUMN_PRICE = "price";
+        public static final String PARAM_FROM = "from";
+        public static final String PARAM_TO = "to";
+        public static final int POSITION_TIMESTAMP = 0;
+        public static final int POSITION_PRICE = 1;
+        public static final ImmutableList<String> TICK_COLUMNS = ImmutableList.of(
+                COLUMN_TIMESTAMP,
+                COLUMN_PRICE
+        );
+        static final String TABLE_NAME = "ticks";
+
+        public static Uri makeUriForStock(String symbol) {
+            return URI.buildUpon().appendPath(symbol).build();
+        }
+
+        public static Uri makeUriForRange(String symbol, long from, long to) {
+            return makeUriForStock(symbol).buildUpon()
+                    .appendQueryParameter(PARAM_FROM, String.valueOf(from))
+                    .appendQueryParameter(PARAM_TO, String.valueOf(to))
+                    .build();
+        }
+
+        static String getStockFromUri(Uri queryUri) {
+            return queryUri.getPathSegments().get(1);
+        }
+    }
 }
@@ -1,43 +1,177 @@
 package com.udacity.stockhawk.data;
 
 import android.content.Context;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
 
+import com.udacity.stockhawk.R;
+import com.udacity.stockhawk.data.Contract.History;
 import com.udacity.stockhawk.data.Contract.Quote;
+import com.udacity.stockhawk.data.Contract.Tick;
 
 
 class DbHelper extends SQLiteOpenHelper {
 
 
     private static final String NAME = "StockHawk.db";
-    private static final int VERSION = 1;
+    private static final int VERSION = 4;
 
+    /**
+     * Column of the quotes table which has contained a whole history as a string (version 1).
+     */
+    private static final String LEGACY_COLUMN_HISTORY = "history";
+
+    /**
+     * Ticks are clustered by the (symbol, timestamp) key, like the history.
+     */
+    static final String CREATE_TICK_TABLE = "CREATE TABLE " + Tick.TABLE_NAME + " ("
+            + Tick.COLUMN_SYMBOL + " TEXT NOT NULL, "
+            + Tick.COLUMN_TIMESTAMP + " INTEGER NOT NULL, "
+            + Tick.COLUMN_PRICE + " REAL NOT NULL, "
+            + "PRIMARY KEY (" + Tick.COLUMN_SYMBOL + ", " + Tick.COLUMN_TIMESTAMP
+            + ") ON CONFLICT REPLACE) WITHOUT ROWID;";
+
+
+    private final int mCacheSize;
+    private final int mSynchronous;
 
     DbHelper(Context context) {
         super(context, NAME, null, VERSION);
+        mCacheSize = context.getResources().getInteger(R.integer.db_cache_size);
+        mSynchronous = context.getResources().getInteger(R.integer.db_synchronous);
+
+        // With write-ahead logging readers (lists, details and widget) don't have to wait
+        // until synchronization commits its transaction, and it doesn't have to wait for them.
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+
+        // NORMAL synchronous mode is safe with WAL. Last commits can be lost on a power
+        // failure, but data can always be synchronized again.
+        db.execSQL("PRAGMA synchronous = " + mSynchronous);
+        // Negative value is a size in KiB instead of a number of pages. PRAGMA affects only
+        // this connection, which is the primary one, so it sizes the cache of the writer
+        // (synchronization) and not of the WAL readers.
+        db.execSQL("PRAGMA cache_size = -" + mCacheSize);
     }
 
     @Override
     public void onCreate(SQLiteDatabase db) {
+        createQuoteTable(db);
+        createHistoryTable(db);
+        createTickTable(db);
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion < 2) {
+            upgradeToVersion2(db);
+        }
+        if (oldVersion < 3) {
+            upgradeToVersion3(db);
+        }
+        if (oldVersion < 4) {
+            createTickTable(db);
+        }
+    }
+
+    private static void createQuoteTable(SQLiteDatabase db) {
         String builder = "CREATE TABLE " + Quote.TABLE_NAME + " ("
                 + Quote._ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
                 + Quote.COLUMN_SYMBOL + " TEXT NOT NULL, "
                 + Quote.COLUMN_PRICE + " REAL NOT NULL, "
                 + Quote.COLUMN_ABSOLUTE_CHANGE + " REAL NOT NULL, "
                 + Quote.COLUMN_PERCENTAGE_CHANGE + " REAL NOT NULL, "
-                + Quote.COLUMN_HISTORY + " TEXT NOT NULL, "
                 + "UNIQUE (" + Quote.COLUMN_SYMBOL + ") ON CONFLICT REPLACE);";
 
         db.execSQL(builder);
+    }
 
+    private static void createHistoryTable(SQLiteDatabase db) {
+        // Rows are clustered by the (symbol, date) key, so the table is its own covering index.
+        // It takes much less space than a rowid table with the separate indexes,
+        // and range queries for the stock read only neighbouring pages.
+        String builder = "CREATE TABLE " + History.TABLE_NAME + " ("
+                + History.COLUMN_SYMBOL + " TEXT NOT NULL, "
+                + History.COLUMN_DATE + " INTEGER NOT NULL, "
+                + History.COLUMN_CLOSE + " REAL NOT NULL, "
+                + "PRIMARY KEY (" + History.COLUMN_SYMBOL + ", " + History.COLUMN_DATE
+                + ") ON CONFLICT REPLACE) WITHOUT ROWID;";
+
+        db.execSQL(builder);
     }
 
-    @Override
-    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+    private static void createTickTable(SQLiteDatabase db) {
+        db.execSQL(CREATE_TICK_TABLE);
+    }
+
+    /**
+     * Move history from the string column of the quotes table to the separate table.
+     *
+     * @param db database which is upgraded
+     */
+    private static void upgradeToVersion2(SQLiteDatabase db) {
+        createHistoryTable(db);
+
+        SQLiteStatement insert = db.compileStatement("INSERT INTO " + History.TABLE_NAME + " ("
+                + History.COLUMN_SYMBOL + ", "
+                + History.COLUMN_DATE + ", "
+                + History.COLUMN_CLOSE + ") VALUES (?, ?, ?)");
+
+        Cursor cursor = db.query(Quote.TABLE_NAME,
+                new String[]{Quote.COLUMN_SYMBOL, LEGACY_COLUMN_HISTORY},
+                null, null, null, null, null);
+        try {
+            while (cursor.moveToNext()) {
+                String symbol = cursor.getString(0);
+                PriceSeries history = PriceSeries.parse(cursor.getString(1));
+                for (int i = 0; i < history.size(); i++) {
+                    insert.bindString(1, symbol);
+                    insert.bindLong(2, history.getTimestamp(i));
+                    insert.bindDouble(3, history.getClose(i));
+                    insert.executeInsert();
+                }
+            }
+        } finally {
+            cursor.close();
+            insert.close();
+        }
+
+        // SQLite is not able to drop a column, so we need to rebuild the quotes table.
+        String columns = Quote._ID + ", "
+                + Quote.COLUMN_SYMBOL + ", "
+                + Quote.COLUMN_PRICE + ", "
+                + Quote.COLUMN_ABSOLUTE_CHANGE + ", "
+                + Quote.COLUMN_PERCENTAGE_CHANGE;
+        String legacyTable = Quote.TABLE_NAME + "_v1";
+
+        db.execSQL("ALTER TABLE " + Quote.TABLE_NAME + " RENAME TO " + legacyTable);
+        createQuoteTable(db);
+        db.execSQL("INSERT INTO " + Quote.TABLE_NAME + " (" + columns + ") "
+                + "SELECT " + columns + " FROM " + legacyTable);
+        db.execSQL("DROP TABLE " + legacyTable);
+    }
 
-        db.execSQL(" DROP TABLE IF EXISTS " + Quote.TABLE_NAME);
+    /**
+     * Rebuild the history table (rowid table with two indexes) as a clustered table.
+     *
+     * @param db database which is upgraded
+     */
+    private static void upgradeToVersion3(SQLiteDatabase db) {
+        String columns = History.COLUMN_SYMBOL + ", "
+                + History.COLUMN_DATE + ", "
+                + History.COLUMN_CLOSE;
+        String legacyTable = History.TABLE_NAME + "_v2";
 
-        onCreate(db);
+        db.execSQL("ALTER TABLE " + History.TABLE_NAME + " RENAME TO " + legacyTable);
+        createHistoryTable(db);
+        db.execSQL("INSERT INTO " + History.TABLE_NAME + " (" + columns + ") "
+                + "SELECT " + columns + " FROM " + legacyTable);
+        db.execSQL("DROP TABLE " + legacyTable);
     }
 }
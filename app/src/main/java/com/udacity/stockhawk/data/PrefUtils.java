@@ -10,11 +10,17 @@ import com.udacity.stockhawk.Utility;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 public final class PrefUtils {
 
+    /**
+     * Time for which a symbol rejected by the API is considered invalid.
+     */
+    private static final long INVALID_STOCK_TTL = TimeUnit.DAYS.toMillis(7);
+
     private PrefUtils() {
     }
 
@@ -64,6 +70,69 @@ public final class PrefUtils {
         editStockPref(context, symbol, false);
     }
 
+    /**
+     * Remember that stock symbol has been rejected by the API.
+     * Expired symbols are forgotten at the same time, so the list doesn't grow forever.
+     *
+     * @param context of the application
+     * @param symbol  of the invalid stock
+     */
+    public static void markStockInvalid(Context context, String symbol) {
+        SharedPreferences prefs = getInvalidStocks(context);
+        SharedPreferences.Editor editor = prefs.edit();
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, ?> entry : prefs.getAll().entrySet()) {
+            Object rejectedAt = entry.getValue();
+            if (!(rejectedAt instanceof Long) || now - (Long) rejectedAt > INVALID_STOCK_TTL) {
+                editor.remove(entry.getKey());
+            }
+        }
+
+        editor.putLong(symbol, now).apply();
+    }
+
+    /**
+     * Forget that stock symbol has been rejected by the API, e.g. when user wants to add it
+     * anyway.
+     *
+     * @param context of the application
+     * @param symbol  of the stock
+     */
+    public static void clearStockInvalid(Context context, String symbol) {
+        getInvalidStocks(context).edit()
+                .remove(symbol)
+                .apply();
+    }
+
+    /**
+     * Determine if stock symbol has been rejected by the API recently.
+     * Symbols are forgotten after {@link #INVALID_STOCK_TTL}, because they can become valid
+     * (e.g. new listing).
+     *
+     * @param context of the application
+     * @param symbol  of the stock
+     * @return flag whether stock is known to be invalid
+     */
+    public static boolean isStockInvalid(Context context, String symbol) {
+        SharedPreferences prefs = getInvalidStocks(context);
+        long rejectedAt = prefs.getLong(symbol, 0);
+        if (rejectedAt == 0) {
+            return false;
+        }
+
+        if (System.currentTimeMillis() - rejectedAt > INVALID_STOCK_TTL) {
+            prefs.edit().remove(symbol).apply();
+            return false;
+        }
+
+        return true;
+    }
+
+    private static SharedPreferences getInvalidStocks(Context context) {
+        return context.getSharedPreferences(
+                context.getString(R.string.pref_invalid_stocks_file), Context.MODE_PRIVATE);
+    }
+
     public static String getDisplayMode(Context context) {
         String key = context.getString(R.string.pref_display_mode_key);
         String defaultValue = context.getString(R.string.pref_display_mode_default);
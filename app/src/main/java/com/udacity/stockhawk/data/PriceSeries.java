@@ -0,0 +1,201 @@
+package com.udacity.stockhawk.data;
+
+import android.database.Cursor;
+
+/**
+ * Immutable series of the historical closing prices of the stock.
+ * <p>
+ * Quotes are kept in two primitive arrays instead of a list of objects, so reading
+ * a history of any length allocates only a constant number of objects.
+ */
+public final class PriceSeries {
+
+    private static final PriceSeries EMPTY = new PriceSeries(new long[0], new float[0]);
+
+    private final long[] mTimestamps;
+    private final float[] mCloses;
+
+    private PriceSeries(long[] timestamps, float[] closes) {
+        mTimestamps = timestamps;
+        mCloses = closes;
+    }
+
+    /**
+     * Get an empty series.
+     *
+     * @return series without any quote
+     */
+    public static PriceSeries empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Read a series from the cursor.
+     * Cursor should contain columns from {@link Contract.History#HISTORY_COLUMNS}.
+     * Quotes are kept in the same order as they are in the cursor.
+     *
+     * @param cursor with the history
+     * @return series of the quotes
+     */
+    public static PriceSeries fromCursor(Cursor cursor) {
+        int count = cursor.getCount();
+        if (count <= 0) {
+            return EMPTY;
+        }
+
+        long[] timestamps = new long[count];
+        float[] closes = new float[count];
+
+        int size = 0;
+        cursor.moveToPosition(-1);
+        while (cursor.moveToNext() && size < count) {
+            timestamps[size] = cursor.getLong(Contract.History.POSITION_DATE);
+            closes[size] = cursor.getFloat(Contract.History.POSITION_CLOSE);
+            size++;
+        }
+
+        return new PriceSeries(timestamps, closes);
+    }
+
+    /**
+     * Parse a string which contains lines of the historical stock quotes ("timestamp, close").
+     * This is a format in which we have been storing a history in the quotes table,
+     * before history has been moved to its own table.
+     * <p>
+     * Lines are parsed in place, without splitting the string into the intermediate strings.
+     * Invalid lines are skipped.
+     *
+     * @param history string
+     * @return series of the quotes, in the same order as lines of the string
+     */
+    public static PriceSeries parse(String history) {
+        if (history == null || history.isEmpty()) {
+            return EMPTY;
+        }
+
+        int lines = 1;
+        for (int i = 0; i < history.length(); i++) {
+            if (history.charAt(i) == '\n') {
+                lines++;
+            }
+        }
+
+        long[] timestamps = new long[lines];
+        float[] closes = new float[lines];
+        int size = 0;
+
+        int start = 0;
+        while (start < history.length()) {
+            int end = history.indexOf('\n', start);
+            if (end < 0) {
+                end = history.length();
+            }
+
+            int separator = history.indexOf(',', start);
+            if (separator > start && separator < end) {
+                long timestamp = parseLong(history, start, separator);
+                float close = parseFloat(history, separator + 1, end);
+                if (timestamp >= 0 && !Float.isNaN(close)) {
+                    timestamps[size] = timestamp;
+                    closes[size] = close;
+                    size++;
+                }
+            }
+
+            start = end + 1;
+        }
+
+        if (size < lines) {
+            long[] trimmedTimestamps = new long[size];
+            float[] trimmedCloses = new float[size];
+            System.arraycopy(timestamps, 0, trimmedTimestamps, 0, size);
+            System.arraycopy(closes, 0, trimmedCloses, 0, size);
+            return new PriceSeries(trimmedTimestamps, trimmedCloses);
+        }
+
+        return new PriceSeries(timestamps, closes);
+    }
+
+    public int size() {
+        return mTimestamps.length;
+    }
+
+    public boolean isEmpty() {
+        return mTimestamps.length == 0;
+    }
+
+    public long getTimestamp(int index) {
+        return mTimestamps[index];
+    }
+
+    public float getClose(int index) {
+        return mCloses[index];
+    }
+
+    /**
+     * Parse a non-negative number.
+     *
+     * @return parsed number or -1 when text is not a valid number
+     */
+    private static long parseLong(String text, int start, int end) {
+        if (start >= end) {
+            return -1;
+        }
+
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+
+        return value;
+    }
+
+    /**
+     * Parse a decimal number, e.g. "-12.345".
+     * Numbers in other formats (like exponent notation) are parsed by the {@link Float} class.
+     *
+     * @return parsed number or NaN when text is not a valid number
+     */
+    private static float parseFloat(String text, int start, int end) {
+        while (start < end && text.charAt(start) == ' ') {
+            start++;
+        }
+
+        boolean negative = start < end && text.charAt(start) == '-';
+        int i = negative ? start + 1 : start;
+        if (i >= end) {
+            return Float.NaN;
+        }
+
+        long mantissa = 0;
+        int fractionDigits = -1;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9' && mantissa < Long.MAX_VALUE / 10) {
+                mantissa = mantissa * 10 + (c - '0');
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                try {
+                    return Float.parseFloat(text.substring(start, end).trim());
+                } catch (NumberFormatException exception) {
+                    return Float.NaN;
+                }
+            }
+        }
+
+        double value = mantissa;
+        for (int digit = 0; digit < fractionDigits; digit++) {
+            value /= 10;
+        }
+
+        return (float) (negative ? -value : value);
+    }
+}
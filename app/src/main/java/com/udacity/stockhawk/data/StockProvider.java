@@ -10,11 +10,33 @@ import android.net.Uri;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import java.util.HashSet;
+import java.util.Set;
+
 
 public class StockProvider extends ContentProvider {
 
     private static final int QUOTE = 100;
     private static final int QUOTE_FOR_SYMBOL = 101;
+    private static final int HISTORY = 200;
+    private static final int HISTORY_FOR_SYMBOL = 201;
+    private static final int TICK = 300;
+    private static final int TICK_FOR_SYMBOL = 301;
+
+    /**
+     * Number of the most recent ticks kept for every stock. With the synchronization every
+     * 5 minutes during the regular session, it's a few trading days.
+     */
+    private static final int MAX_TICKS_PER_STOCK = 500;
+
+    private static final String[] QUOTE_KEY = new String[]{Contract.Quote.COLUMN_SYMBOL};
+    private static final String[] QUOTE_VALUES = new String[]{
+            Contract.Quote.COLUMN_PRICE,
+            Contract.Quote.COLUMN_ABSOLUTE_CHANGE,
+            Contract.Quote.COLUMN_PERCENTAGE_CHANGE};
+    private static final String[] HISTORY_KEY =
+            new String[]{Contract.History.COLUMN_SYMBOL, Contract.History.COLUMN_DATE};
+    private static final String[] HISTORY_VALUES = new String[]{Contract.History.COLUMN_CLOSE};
 
     private static final UriMatcher uriMatcher = buildUriMatcher();
 
@@ -24,6 +46,10 @@ public class StockProvider extends ContentProvider {
         UriMatcher matcher = new UriMatcher(UriMatcher.NO_MATCH);
         matcher.addURI(Contract.AUTHORITY, Contract.PATH_QUOTE, QUOTE);
         matcher.addURI(Contract.AUTHORITY, Contract.PATH_QUOTE_WITH_SYMBOL, QUOTE_FOR_SYMBOL);
+        matcher.addURI(Contract.AUTHORITY, Contract.PATH_HISTORY, HISTORY);
+        matcher.addURI(Contract.AUTHORITY, Contract.PATH_HISTORY_WITH_SYMBOL, HISTORY_FOR_SYMBOL);
+        matcher.addURI(Contract.AUTHORITY, Contract.PATH_TICK, TICK);
+        matcher.addURI(Contract.AUTHORITY, Contract.PATH_TICK_WITH_SYMBOL, TICK_FOR_SYMBOL);
         return matcher;
     }
 
@@ -65,6 +91,46 @@ public class StockProvider extends ContentProvider {
                 );
 
                 break;
+
+            case HISTORY:
+                returnCursor = db.query(
+                        Contract.History.TABLE_NAME,
+                        projection,
+                        selection,
+                        selectionArgs,
+                        null,
+                        null,
+                        sortOrder
+                );
+                break;
+
+            case HISTORY_FOR_SYMBOL:
+                returnCursor = queryRangeForSymbol(db, uri,
+                        Contract.History.TABLE_NAME,
+                        Contract.History.getStockFromUri(uri),
+                        Contract.History.COLUMN_DATE,
+                        projection, sortOrder);
+                break;
+
+            case TICK:
+                returnCursor = db.query(
+                        Contract.Tick.TABLE_NAME,
+                        projection,
+                        selection,
+                        selectionArgs,
+                        null,
+                        null,
+                        sortOrder
+                );
+                break;
+
+            case TICK_FOR_SYMBOL:
+                returnCursor = queryRangeForSymbol(db, uri,
+                        Contract.Tick.TABLE_NAME,
+                        Contract.Tick.getStockFromUri(uri),
+                        Contract.Tick.COLUMN_TIMESTAMP,
+                        projection, sortOrder);
+                break;
             default:
                 throw new UnsupportedOperationException("Unknown URI:" + uri);
         }
@@ -96,15 +162,17 @@ public class StockProvider extends ContentProvider {
                         null,
                         values
                 );
-                returnUri = Contract.Quote.URI;
+                returnUri = Contract.Quote.makeUriForStock(
+                        values.getAsString(Contract.Quote.COLUMN_SYMBOL));
                 break;
             default:
                 throw new UnsupportedOperationException("Unknown URI:" + uri);
         }
 
+        // Only observers of this stock (and the whole list) are interested in the change.
         Context context = getContext();
         if (context != null){
-            context.getContentResolver().notifyChange(uri, null);
+            context.getContentResolver().notifyChange(returnUri, null);
         }
 
         return returnUri;
@@ -130,9 +198,52 @@ public class StockProvider extends ContentProvider {
 
             case QUOTE_FOR_SYMBOL:
                 String symbol = Contract.Quote.getStockFromUri(uri);
+                int historyDeleted;
+                int ticksDeleted;
+
+                // Stock is removed together with its history and ticks, or not at all.
+                db.beginTransaction();
+                try {
+                    rowsDeleted = db.delete(
+                            Contract.Quote.TABLE_NAME,
+                            '"' + symbol + '"' + " =" + Contract.Quote.COLUMN_SYMBOL,
+                            selectionArgs
+                    );
+
+                    // History of removed stock is not needed anymore.
+                    historyDeleted = db.delete(
+                            Contract.History.TABLE_NAME,
+                            Contract.History.COLUMN_SYMBOL + " = ?",
+                            new String[]{symbol}
+                    );
+
+                    ticksDeleted = db.delete(
+                            Contract.Tick.TABLE_NAME,
+                            Contract.Tick.COLUMN_SYMBOL + " = ?",
+                            new String[]{symbol}
+                    );
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+
+                Context stockContext = getContext();
+                if (stockContext != null) {
+                    if (historyDeleted != 0) {
+                        stockContext.getContentResolver().notifyChange(
+                                Contract.History.makeUriForStock(symbol), null);
+                    }
+                    if (ticksDeleted != 0) {
+                        stockContext.getContentResolver().notifyChange(
+                                Contract.Tick.makeUriForStock(symbol), null);
+                    }
+                }
+                break;
+
+            case HISTORY:
                 rowsDeleted = db.delete(
-                        Contract.Quote.TABLE_NAME,
-                        '"' + symbol + '"' + " =" + Contract.Quote.COLUMN_SYMBOL,
+                        Contract.History.TABLE_NAME,
+                        selection,
                         selectionArgs
                 );
                 break;
@@ -162,31 +273,158 @@ public class StockProvider extends ContentProvider {
 
         switch (uriMatcher.match(uri)) {
             case QUOTE:
-                db.beginTransaction();
-                int returnCount = 0;
-                try {
-                    for (ContentValues value : values) {
-                        db.insert(
-                                Contract.Quote.TABLE_NAME,
-                                null,
-                                value
-                        );
-                    }
-                    db.setTransactionSuccessful();
-                } finally {
-                    db.endTransaction();
-                }
-
-                Context context = getContext();
-                if (context != null) {
-                    context.getContentResolver().notifyChange(uri, null);
-                }
+                return bulkInsertQuotes(db, values);
 
-                return returnCount;
+            case HISTORY:
+                return bulkInsertHistory(db, values);
             default:
                 return super.bulkInsert(uri, values);
         }
 
 
     }
+
+    /**
+     * Query a history or ticks of the single stock.
+     * Range of the dates can be limited by the from and to query parameters of the URI
+     * (history and ticks URIs use the same parameters).
+     *
+     * @param db         readable database
+     * @param uri        of the stock history or ticks
+     * @param table      which we want to query
+     * @param symbol     of the stock
+     * @param timeColumn column with the date of the row
+     * @param projection columns which we want to fetch
+     * @param sortOrder  of the rows, by default from the newest to the oldest one
+     * @return cursor with the rows
+     */
+    private static Cursor queryRangeForSymbol(SQLiteDatabase db, Uri uri, String table,
+                                              String symbol, String timeColumn,
+                                              String[] projection, String sortOrder) {
+        StringBuilder selection = new StringBuilder(Contract.History.COLUMN_SYMBOL + " = ?");
+        String[] selectionArgs = new String[3];
+        int argsCount = 0;
+        selectionArgs[argsCount++] = symbol;
+
+        String from = uri.getQueryParameter(Contract.History.PARAM_FROM);
+        if (from != null) {
+            selection.append(" AND ").append(timeColumn).append(" >= ?");
+            selectionArgs[argsCount++] = from;
+        }
+
+        String to = uri.getQueryParameter(Contract.History.PARAM_TO);
+        if (to != null) {
+            selection.append(" AND ").append(timeColumn).append(" <= ?");
+            selectionArgs[argsCount++] = to;
+        }
+
+        if (sortOrder == null) {
+            sortOrder = timeColumn + " DESC";
+        }
+
+        String[] args = new String[argsCount];
+        System.arraycopy(selectionArgs, 0, args, 0, argsCount);
+
+        return db.query(
+                table,
+                projection,
+                selection.toString(),
+                args,
+                null,
+                null,
+                sortOrder
+        );
+    }
+
+    /**
+     * Insert or update quotes of many stocks in a single transaction.
+     * <p>
+     * Observers are notified only when something has really changed (e.g. outside market hours
+     * prices are not moving at all), and only about the stocks which has changed. Quotes list
+     * observes all stocks, but details of one stock are not reloaded when another one changes.
+     * <p>
+     * Every changed quote is also appended to the ticks in the same transaction,
+     * and the oldest ticks of the stock are dropped.
+     *
+     * @param db     writable database
+     * @param values quotes
+     * @return number of inserted or updated rows
+     */
+    private int bulkInsertQuotes(SQLiteDatabase db, ContentValues[] values) {
+        Set<String> changedSymbols = new HashSet<>();
+        int returnCount = 0;
+        long timestamp = System.currentTimeMillis();
+
+        db.beginTransaction();
+        UpsertStatement upsert = new UpsertStatement(
+                db, Contract.Quote.TABLE_NAME, QUOTE_KEY, QUOTE_VALUES);
+        TickAppender ticks = new TickAppender(db, MAX_TICKS_PER_STOCK);
+        try {
+            for (ContentValues value : values) {
+                if (upsert.execute(value)) {
+                    String symbol = value.getAsString(Contract.Quote.COLUMN_SYMBOL);
+                    ticks.append(symbol, timestamp,
+                            value.getAsDouble(Contract.Quote.COLUMN_PRICE));
+                    changedSymbols.add(symbol);
+                    returnCount++;
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            upsert.close();
+            ticks.close();
+            db.endTransaction();
+        }
+
+        Context context = getContext();
+        if (context != null) {
+            for (String symbol : changedSymbols) {
+                context.getContentResolver().notifyChange(
+                        Contract.Quote.makeUriForStock(symbol), null);
+                context.getContentResolver().notifyChange(
+                        Contract.Tick.makeUriForStock(symbol), null);
+            }
+        }
+
+        return returnCount;
+    }
+
+    /**
+     * Insert historical quotes of many stocks in a single transaction.
+     * Observers are notified only about history of the stocks which has changed.
+     *
+     * @param db     writable database
+     * @param values historical quotes
+     * @return number of inserted or updated rows
+     */
+    private int bulkInsertHistory(SQLiteDatabase db, ContentValues[] values) {
+        Set<String> changedSymbols = new HashSet<>();
+        int returnCount = 0;
+
+        db.beginTransaction();
+        UpsertStatement upsert = new UpsertStatement(
+                db, Contract.History.TABLE_NAME, HISTORY_KEY, HISTORY_VALUES);
+        try {
+            for (ContentValues value : values) {
+                if (upsert.execute(value)) {
+                    changedSymbols.add(value.getAsString(Contract.History.COLUMN_SYMBOL));
+                    returnCount++;
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            upsert.close();
+            db.endTransaction();
+        }
+
+        Context context = getContext();
+        if (context != null) {
+            for (String symbol : changedSymbols) {
+                context.getContentResolver().notifyChange(
+                        Contract.History.makeUriForStock(symbol), null);
+            }
+        }
+
+        return returnCount;
+    }
 }
@@ -0,0 +1,72 @@
+package com.udacity.stockhawk.data;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.udacity.stockhawk.data.Contract.Tick;
+
+/**
+ * Compiled statements which append a tick of the stock and drop its oldest ticks,
+ * so every stock keeps at most a fixed number of them (like a ring buffer).
+ * It's meant to be used inside the transaction which writes the quotes.
+ */
+final class TickAppender {
+
+    /**
+     * Statement which inserts a tick (symbol, timestamp, price).
+     */
+    static final String INSERT = "INSERT INTO " + Tick.TABLE_NAME + " ("
+            + Tick.COLUMN_SYMBOL + ", "
+            + Tick.COLUMN_TIMESTAMP + ", "
+            + Tick.COLUMN_PRICE + ") VALUES (?, ?, ?)";
+
+    /**
+     * Statement which deletes everything what is older than the oldest tick which we want
+     * to keep (symbol, number of the newer ticks). Thanks to the clustered key, both queries
+     * read only ticks of the single stock.
+     */
+    static final String PRUNE = "DELETE FROM " + Tick.TABLE_NAME
+            + " WHERE " + Tick.COLUMN_SYMBOL + " = ?1"
+            + " AND " + Tick.COLUMN_TIMESTAMP + " < ("
+            + "SELECT " + Tick.COLUMN_TIMESTAMP + " FROM " + Tick.TABLE_NAME
+            + " WHERE " + Tick.COLUMN_SYMBOL + " = ?1"
+            + " ORDER BY " + Tick.COLUMN_TIMESTAMP + " DESC"
+            + " LIMIT 1 OFFSET ?2)";
+
+    private final int mMaxTicks;
+    private final SQLiteStatement mInsert;
+    private final SQLiteStatement mPrune;
+
+    /**
+     * @param db       writable database
+     * @param maxTicks number of the most recent ticks kept for every stock
+     */
+    TickAppender(SQLiteDatabase db, int maxTicks) {
+        mMaxTicks = maxTicks;
+        mInsert = db.compileStatement(INSERT);
+        mPrune = db.compileStatement(PRUNE);
+    }
+
+    /**
+     * Append a tick and prune the oldest ticks of the stock.
+     *
+     * @param symbol    of the stock
+     * @param timestamp of the tick in milliseconds
+     * @param price     of the stock
+     */
+    void append(String symbol, long timestamp, double price) {
+        mInsert.bindString(1, symbol);
+        mInsert.bindLong(2, timestamp);
+        mInsert.bindDouble(3, price);
+        mInsert.executeInsert();
+
+        mPrune.bindString(1, symbol);
+        mPrune.bindLong(2, mMaxTicks - 1);
+        mPrune.executeUpdateDelete();
+    }
+
+    void close() {
+        mInsert.close();
+        mPrune.close();
+    }
+}
@@ -0,0 +1,137 @@
+package com.udacity.stockhawk.data;
+
+import android.content.ContentValues;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+/**
+ * Compiled statements which insert a row or update an existing one, but only when any
+ * of its values has changed.
+ * <p>
+ * Statements are compiled once and executed for every row of the batch, with values bound
+ * by index. Existing row is updated in place instead of being replaced (which is a default
+ * behaviour of the unique constraints), so the row keeps its ID.
+ */
+final class UpsertStatement {
+
+    private final String[] mKeyColumns;
+    private final String[] mValueColumns;
+    private final SQLiteStatement mInsert;
+    private final SQLiteStatement mUpdate;
+
+    /**
+     * @param db           writable database
+     * @param table        to which we want to write
+     * @param keyColumns   which identify the row
+     * @param valueColumns which can be updated
+     */
+    UpsertStatement(SQLiteDatabase db, String table, String[] keyColumns, String[] valueColumns) {
+        mKeyColumns = keyColumns;
+        mValueColumns = valueColumns;
+
+        mInsert = db.compileStatement(createInsert(table, keyColumns, valueColumns));
+        mUpdate = db.compileStatement(createUpdate(table, keyColumns, valueColumns));
+    }
+
+    /**
+     * Create the insert statement, which binds key columns first and then value columns.
+     *
+     * @return INSERT OR IGNORE INTO table (k1, v1, v2) VALUES (?, ?, ?)
+     */
+    static String createInsert(String table, String[] keyColumns, String[] valueColumns) {
+        StringBuilder insert = new StringBuilder("INSERT OR IGNORE INTO ")
+                .append(table).append(" (");
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < keyColumns.length + valueColumns.length; i++) {
+            if (i > 0) {
+                insert.append(", ");
+                placeholders.append(", ");
+            }
+            insert.append(i < keyColumns.length
+                    ? keyColumns[i] : valueColumns[i - keyColumns.length]);
+            placeholders.append('?');
+        }
+        insert.append(") VALUES (").append(placeholders).append(')');
+
+        return insert.toString();
+    }
+
+    /**
+     * Create the update statement, which binds new values, then key columns and then
+     * new values again for the comparison.
+     *
+     * @return UPDATE table SET v1 = ?, v2 = ? WHERE k1 = ? AND (v1 IS NOT ? OR v2 IS NOT ?)
+     */
+    static String createUpdate(String table, String[] keyColumns, String[] valueColumns) {
+        StringBuilder update = new StringBuilder("UPDATE ").append(table).append(" SET ");
+        for (int i = 0; i < valueColumns.length; i++) {
+            if (i > 0) {
+                update.append(", ");
+            }
+            update.append(valueColumns[i]).append(" = ?");
+        }
+        update.append(" WHERE ");
+        for (String keyColumn : keyColumns) {
+            update.append(keyColumn).append(" = ? AND ");
+        }
+        update.append('(');
+        for (int i = 0; i < valueColumns.length; i++) {
+            if (i > 0) {
+                update.append(" OR ");
+            }
+            update.append(valueColumns[i]).append(" IS NOT ?");
+        }
+        update.append(')');
+
+        return update.toString();
+    }
+
+    /**
+     * Write a row.
+     *
+     * @param value of the row
+     * @return flag whether row has been inserted or updated
+     */
+    boolean execute(ContentValues value) {
+        mInsert.clearBindings();
+        for (int i = 0; i < mKeyColumns.length + mValueColumns.length; i++) {
+            DatabaseUtils.bindObjectToProgram(mInsert, i + 1, value.get(getColumn(i)));
+        }
+
+        if (mInsert.executeUpdateDelete() > 0) {
+            return true;
+        }
+
+        mUpdate.clearBindings();
+        int index = 1;
+        for (String valueColumn : mValueColumns) {
+            DatabaseUtils.bindObjectToProgram(mUpdate, index++, value.get(valueColumn));
+        }
+        for (String keyColumn : mKeyColumns) {
+            DatabaseUtils.bindObjectToProgram(mUpdate, index++, value.get(keyColumn));
+        }
+        for (String valueColumn : mValueColumns) {
+            DatabaseUtils.bindObjectToProgram(mUpdate, index++, value.get(valueColumn));
+        }
+
+        return mUpdate.executeUpdateDelete() > 0;
+    }
+
+    void close() {
+        mInsert.close();
+        mUpdate.close();
+    }
+
+    /**
+     * @param index of the column in the insert statement
+     * @return name of the column, key columns go first
+     */
+    private String getColumn(int index) {
+        if (index < mKeyColumns.length) {
+            return mKeyColumns[index];
+        }
+
+        return mValueColumns[index - mKeyColumns.length];
+    }
+}
@@ -0,0 +1,22 @@
+package com.udacity.stockhawk.sync;
+
+/**
+ * Source of the current time, which can be replaced when the time has to be controlled.
+ */
+interface Clock {
+
+    /**
+     * Clock of the system.
+     */
+    Clock SYSTEM = new Clock() {
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+    };
+
+    /**
+     * @return current time in milliseconds since the epoch
+     */
+    long currentTimeMillis();
+}
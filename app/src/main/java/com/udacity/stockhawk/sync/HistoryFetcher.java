@@ -0,0 +1,235 @@
+package com.udacity.stockhawk.sync;
+
+import com.udacity.stockhawk.api.CircuitBreaker;
+import com.udacity.stockhawk.api.QuoteSource;
+import com.udacity.stockhawk.api.Retry;
+
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import timber.log.Timber;
+import yahoofinance.histquotes.HistoricalQuote;
+
+/**
+ * Fetches a historical quotes for many stocks at once.
+ * <p>
+ * Each history request is a separate round trip to the API, so instead of waiting for them
+ * one by one we are sending them from a bounded pool of workers. In this way a time of the
+ * synchronization depends on the size of the pool instead of the number of stock symbols.
+ * <p>
+ * Failed requests are retried, and the whole fetch has a deadline, so a single hanging
+ * request can't block the synchronization. Every stock has its own circuit breaker,
+ * so a stock whose history keeps failing is skipped for a while. Requests which were still
+ * waiting for a free worker when the deadline has passed are not counted as failures,
+ * because they have not been sent at all.
+ * <p>
+ * Breakers are kept by the fetcher, so the same instance should be used
+ * for all synchronizations.
+ */
+class HistoryFetcher {
+
+    /**
+     * Time in milliseconds after which we stop waiting for the history requests.
+     */
+    private static final long FETCH_TIMEOUT = TimeUnit.SECONDS.toMillis(60);
+
+    private static final int BREAKER_FAILURES = 3;
+    private static final long BREAKER_OPEN_DURATION = TimeUnit.HOURS.toMillis(1);
+
+    /**
+     * Circuit breakers of the stock symbols.
+     */
+    private final Map<String, CircuitBreaker> mBreakers = new HashMap<>();
+
+    /**
+     * Maximum number of history requests which can be executed at the same time.
+     */
+    private final int mPoolSize;
+    private final QuoteSource mSource;
+    private final Clock mClock;
+    private final Retry mRetry;
+    private final long mFetchTimeout;
+
+    HistoryFetcher(QuoteSource source, int poolSize, Clock clock) {
+        this(source, poolSize, clock, new Retry(3, 1000, 4000), FETCH_TIMEOUT);
+    }
+
+    /**
+     * @param source       of the history
+     * @param poolSize     maximum number of requests executed at the same time
+     * @param clock        source of the time for the deadline and the breakers
+     * @param retry        of the failed requests
+     * @param fetchTimeout time in milliseconds after which we stop waiting for the requests
+     */
+    HistoryFetcher(QuoteSource source, int poolSize, Clock clock, Retry retry,
+                   long fetchTimeout) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("Pool size should be greater than zero.");
+        }
+
+        mSource = source;
+        mPoolSize = poolSize;
+        mClock = clock;
+        mRetry = retry;
+        mFetchTimeout = fetchTimeout;
+    }
+
+    /**
+     * Fetch weekly history of provided stocks.
+     * Every stock can be fetched since a different date, so for the stocks with already
+     * stored history we can download only the missing range.
+     * <p>
+     * Failure of a single request does not break the others. Stock whose history could not be
+     * fetched is simply missing in the result map, so caller can decide what to do with it.
+     *
+     * @param from map of the stocks for which we want to fetch a history and dates
+     *             of their oldest requested quote
+     * @param to   date of the newest quote
+     * @return map of the stock symbols and their history
+     */
+    Map<String, List<HistoricalQuote>> fetch(Map<String, Calendar> from, Calendar to) {
+        Map<String, List<HistoricalQuote>> result = new HashMap<>();
+        if (from.isEmpty()) {
+            return result;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(mPoolSize, from.size()));
+        Map<String, HistoryTask> tasks = new HashMap<>();
+        // Results are awaited in the order of submission, which is also the order
+        // in which workers take the tasks.
+        Map<String, Future<List<HistoricalQuote>>> futures = new LinkedHashMap<>();
+        // Symbols whose breaker has allowed a request, but its result has not been recorded.
+        Set<String> unrecorded = new HashSet<>();
+        // Deadline starts before the first request is sent.
+        long deadline = mClock.currentTimeMillis() + mFetchTimeout;
+        try {
+            for (Map.Entry<String, Calendar> stock : from.entrySet()) {
+                String symbol = stock.getKey();
+                if (!getBreaker(symbol).allowRequest(mClock.currentTimeMillis())) {
+                    Timber.w("History of the %s stock is skipped after repeated failures", symbol);
+                    continue;
+                }
+
+                unrecorded.add(symbol);
+                HistoryTask task = new HistoryTask(mSource, mRetry, symbol, stock.getValue(), to);
+                tasks.put(symbol, task);
+                futures.put(symbol, executor.submit(task));
+            }
+
+            for (Map.Entry<String, Future<List<HistoricalQuote>>> future : futures.entrySet()) {
+                String symbol = future.getKey();
+                CircuitBreaker breaker = getBreaker(symbol);
+                try {
+                    long timeout = Math.max(0, deadline - mClock.currentTimeMillis());
+                    result.put(symbol, future.getValue().get(timeout, TimeUnit.MILLISECONDS));
+                    breaker.recordSuccess();
+                } catch (ExecutionException exception) {
+                    breaker.recordFailure(mClock.currentTimeMillis());
+                    Timber.e(exception.getCause(),
+                            "Error fetching history of the %s stock", symbol);
+                } catch (TimeoutException exception) {
+                    // Deadline has passed for all tasks. Waiting tasks are dropped at once,
+                    // otherwise they could start in the worker released by this one.
+                    executor.shutdownNow();
+                    if (!tasks.get(symbol).hasStarted()) {
+                        Timber.w("History of the %s stock has not been requested in time", symbol);
+                        continue;
+                    }
+
+                    breaker.recordFailure(mClock.currentTimeMillis());
+                    Timber.e("History of the %s stock has not been fetched in time", symbol);
+                }
+                unrecorded.remove(symbol);
+            }
+        } catch (InterruptedException exception) {
+            Timber.w(exception, "History fetching has been interrupted");
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+
+            // Requests which were not sent or were interrupted together with the whole
+            // synchronization say nothing about the stock, but they can't keep the trial.
+            for (String symbol : unrecorded) {
+                getBreaker(symbol).recordSkipped();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Forget circuit breakers of the stocks which are not synchronized anymore.
+     *
+     * @param symbols of all synchronized stocks
+     */
+    void retainStocks(Collection<String> symbols) {
+        synchronized (mBreakers) {
+            mBreakers.keySet().retainAll(symbols);
+        }
+    }
+
+    private CircuitBreaker getBreaker(String symbol) {
+        synchronized (mBreakers) {
+            CircuitBreaker breaker = mBreakers.get(symbol);
+            if (breaker == null) {
+                breaker = new CircuitBreaker(BREAKER_FAILURES, BREAKER_OPEN_DURATION);
+                mBreakers.put(symbol, breaker);
+            }
+
+            return breaker;
+        }
+    }
+
+    /**
+     * Single history request.
+     */
+    private static class HistoryTask implements Callable<List<HistoricalQuote>> {
+
+        private final QuoteSource mSource;
+        private final Retry mRetry;
+        private final String mSymbol;
+        private final Calendar mFrom;
+        private final Calendar mTo;
+        private volatile boolean mStarted;
+
+        HistoryTask(QuoteSource source, Retry retry, String symbol, Calendar from, Calendar to) {
+            mSource = source;
+            mRetry = retry;
+            mSymbol = symbol;
+            // Calendar is not thread safe (even its getters can modify an internal state),
+            // so every task needs its own copy.
+            mFrom = (Calendar) from.clone();
+            mTo = (Calendar) to.clone();
+        }
+
+        boolean hasStarted() {
+            return mStarted;
+        }
+
+        @Override
+        public List<HistoricalQuote> call() throws Exception {
+            mStarted = true;
+            return mRetry.call(new Callable<List<HistoricalQuote>>() {
+                @Override
+                public List<HistoricalQuote> call() throws IOException {
+                    return mSource.getHistory(mSymbol, mFrom, mTo);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.udacity.stockhawk.sync;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+
+import com.udacity.stockhawk.data.Contract;
+
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import yahoofinance.histquotes.HistoricalQuote;
+
+/**
+ * Helper methods for incremental synchronization of the stock history.
+ * <p>
+ * Instead of downloading whole history on every synchronization, we are requesting only
+ * a range since the newest stored quote and upserting it into the history table.
+ * Only the completed weeks are downloaded, quote of the current week is the current price.
+ */
+final class IncrementalHistory {
+
+    /**
+     * Maximum allowed distance between two weekly quotes.
+     * If stored history has a bigger hole than that, it has to be downloaded once again.
+     */
+    private static final long MAX_GAP = TimeUnit.DAYS.toMillis(14);
+
+    /**
+     * Projection of the stored history which is needed to find the newest quotes.
+     */
+    static final String[] PROJECTION = new String[]{
+            Contract.History.COLUMN_SYMBOL,
+            Contract.History.COLUMN_DATE
+    };
+
+    /**
+     * Order of the stored history which is expected by {@link #newestTimestamps}.
+     */
+    static final String SORT_ORDER =
+            Contract.History.COLUMN_SYMBOL + ", " + Contract.History.COLUMN_DATE + " DESC";
+
+    private IncrementalHistory() {
+    }
+
+    /**
+     * Find the newest stored quote of every stock.
+     * <p>
+     * Stocks whose stored history contains a gap are omitted, because their history
+     * has to be downloaded once again.
+     *
+     * @param cursor with the stored history, in the {@link #PROJECTION} columns and
+     *               the {@link #SORT_ORDER} order
+     * @return map of the stock symbols and timestamps of their newest quote
+     */
+    static Map<String, Long> newestTimestamps(Cursor cursor) {
+        Map<String, Long> newest = new HashMap<>();
+        Set<String> withGap = new HashSet<>();
+        String symbol = null;
+        long newer = 0;
+
+        while (cursor.moveToNext()) {
+            String currentSymbol = cursor.getString(0);
+            long timestamp = cursor.getLong(1);
+
+            if (!currentSymbol.equals(symbol)) {
+                symbol = currentSymbol;
+                newest.put(symbol, timestamp);
+            } else if (newer - timestamp > MAX_GAP) {
+                withGap.add(symbol);
+            }
+            newer = timestamp;
+        }
+
+        newest.keySet().removeAll(withGap);
+        return newest;
+    }
+
+    /**
+     * Create a row of the history table for the current (not completed) week.
+     * It is dated like the downloaded weekly quotes (first day of the week, midnight
+     * of the local time zone), so it is replaced once the week is downloaded.
+     *
+     * @param symbol      of the stock
+     * @param price       current price of the stock
+     * @param startOfWeek start of the current week, market time
+     * @return row of the history table
+     */
+    static ContentValues currentWeekToContentValues(
+            String symbol, float price, Calendar startOfWeek) {
+        Calendar date = Calendar.getInstance();
+        date.clear();
+        date.set(startOfWeek.get(Calendar.YEAR),
+                startOfWeek.get(Calendar.MONTH),
+                startOfWeek.get(Calendar.DAY_OF_MONTH));
+
+        ContentValues historyCV = new ContentValues();
+        historyCV.put(Contract.History.COLUMN_SYMBOL, symbol);
+        historyCV.put(Contract.History.COLUMN_DATE, date.getTimeInMillis());
+        historyCV.put(Contract.History.COLUMN_CLOSE, (double) price);
+        return historyCV;
+    }
+
+    /**
+     * Convert downloaded quotes into rows of the history table.
+     *
+     * @param symbol of the stock
+     * @param quotes downloaded quotes
+     * @param into   list to which rows are added
+     */
+    static void toContentValues(
+            String symbol, List<HistoricalQuote> quotes, List<ContentValues> into) {
+        for (HistoricalQuote quote : quotes) {
+            if (quote.getDate() == null || quote.getClose() == null) {
+                continue;
+            }
+
+            ContentValues historyCV = new ContentValues();
+            historyCV.put(Contract.History.COLUMN_SYMBOL, symbol);
+            historyCV.put(Contract.History.COLUMN_DATE, quote.getDate().getTimeInMillis());
+            historyCV.put(Contract.History.COLUMN_CLOSE, quote.getClose().doubleValue());
+            into.add(historyCV);
+        }
+    }
+}
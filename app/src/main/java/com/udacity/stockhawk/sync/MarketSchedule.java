@@ -0,0 +1,134 @@
+package com.udacity.stockhawk.sync;
+
+import android.content.Context;
+
+import com.udacity.stockhawk.R;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trading sessions of the stock market, which decide when quotes should be synchronized.
+ * <p>
+ * Quotes are synchronized often during the regular session, rarely before and after it
+ * and not at all when market is closed (nights, weekends and holidays).
+ */
+final class MarketSchedule {
+
+    /**
+     * Interval of the synchronization during regular session.
+     */
+    static final long REGULAR_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * Interval of the synchronization during pre-market and after-hours sessions.
+     */
+    static final long EXTENDED_INTERVAL = TimeUnit.MINUTES.toMillis(30);
+
+    private static final TimeZone MARKET_TIME_ZONE = TimeZone.getTimeZone("America/New_York");
+    private static final String HOLIDAY_PATTERN = "yyyy-MM-dd";
+
+    // Sessions in minutes of the day, market time.
+    private static final int PRE_MARKET_OPEN = 4 * 60;
+    private static final int REGULAR_OPEN = 9 * 60 + 30;
+    private static final int REGULAR_CLOSE = 16 * 60;
+    private static final int AFTER_HOURS_CLOSE = 20 * 60;
+
+    private final Clock mClock;
+    private final Set<String> mHolidays;
+    private final SimpleDateFormat mHolidayFormat;
+
+    /**
+     * @param clock    source of the current time
+     * @param holidays days (yyyy-MM-dd, market time) when market is closed
+     */
+    MarketSchedule(Clock clock, Collection<String> holidays) {
+        mClock = clock;
+        mHolidays = new HashSet<>(holidays);
+        mHolidayFormat = new SimpleDateFormat(HOLIDAY_PATTERN, Locale.US);
+        mHolidayFormat.setTimeZone(MARKET_TIME_ZONE);
+    }
+
+    /**
+     * Create a schedule with the holidays from the resources.
+     *
+     * @param context of the application
+     * @param clock   source of the current time
+     * @return market schedule
+     */
+    static MarketSchedule fromResources(Context context, Clock clock) {
+        return new MarketSchedule(clock,
+                Arrays.asList(context.getResources().getStringArray(R.array.market_holidays)));
+    }
+
+    /**
+     * Calculate when quotes should be synchronized next time.
+     *
+     * @return delay of the next synchronization in milliseconds
+     */
+    long getDelayToNextSync() {
+        long now = mClock.currentTimeMillis();
+        Calendar calendar = Calendar.getInstance(MARKET_TIME_ZONE, Locale.US);
+        calendar.setTimeInMillis(now);
+
+        if (isTradingDay(calendar)) {
+            int minute = calendar.get(Calendar.HOUR_OF_DAY) * 60 + calendar.get(Calendar.MINUTE);
+            if (minute >= REGULAR_OPEN && minute < REGULAR_CLOSE) {
+                return REGULAR_INTERVAL;
+            }
+
+            // Don't sleep through the opening of the regular session.
+            if (minute >= PRE_MARKET_OPEN && minute < REGULAR_OPEN) {
+                return Math.min(EXTENDED_INTERVAL, delayTo(calendar, REGULAR_OPEN, now));
+            }
+
+            if (minute >= REGULAR_CLOSE && minute < AFTER_HOURS_CLOSE) {
+                return EXTENDED_INTERVAL;
+            }
+
+            if (minute < PRE_MARKET_OPEN) {
+                return delayTo(calendar, PRE_MARKET_OPEN, now);
+            }
+        }
+
+        // Market is closed, so wait for the next trading day.
+        do {
+            calendar.add(Calendar.DAY_OF_MONTH, 1);
+        } while (!isTradingDay(calendar));
+
+        return delayTo(calendar, PRE_MARKET_OPEN, now);
+    }
+
+    private boolean isTradingDay(Calendar calendar) {
+        int day = calendar.get(Calendar.DAY_OF_WEEK);
+        if (day == Calendar.SATURDAY || day == Calendar.SUNDAY) {
+            return false;
+        }
+
+        return !mHolidays.contains(mHolidayFormat.format(calendar.getTime()));
+    }
+
+    /**
+     * Calculate delay to the given minute of the day.
+     *
+     * @param calendar day of the session
+     * @param minute   of the day, market time
+     * @param now      current time in milliseconds
+     * @return delay in milliseconds
+     */
+    private static long delayTo(Calendar calendar, int minute, long now) {
+        Calendar target = (Calendar) calendar.clone();
+        target.set(Calendar.HOUR_OF_DAY, minute / 60);
+        target.set(Calendar.MINUTE, minute % 60);
+        target.set(Calendar.SECOND, 0);
+        target.set(Calendar.MILLISECOND, 0);
+        return Math.max(0, target.getTimeInMillis() - now);
+    }
+}
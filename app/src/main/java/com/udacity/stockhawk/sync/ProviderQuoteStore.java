@@ -0,0 +1,152 @@
+package com.udacity.stockhawk.sync;
+
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.content.Context;
+import android.content.Intent;
+import android.database.Cursor;
+
+import com.udacity.stockhawk.api.Quote;
+import com.udacity.stockhawk.data.Contract;
+import com.udacity.stockhawk.data.PrefUtils;
+import com.udacity.stockhawk.ui.MainActivity;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import yahoofinance.histquotes.HistoricalQuote;
+
+/**
+ * Stocks stored in the preferences, and their quotes and history stored in the content
+ * provider.
+ */
+class ProviderQuoteStore implements QuoteStore {
+
+    private final Context mContext;
+
+    ProviderQuoteStore(Context context) {
+        mContext = context;
+    }
+
+    @Override
+    public Set<String> getStocks() {
+        return PrefUtils.getStocks(mContext);
+    }
+
+    @Override
+    public void removeInvalidStock(String symbol, boolean remember) {
+        // If stock symbol does not exists... remove it from preferences.
+        // We don't need to cleanup database, because we did not put there
+        // any data when it is not exist ;)
+        PrefUtils.removeStock(mContext, symbol);
+
+        if (remember) {
+            PrefUtils.markStockInvalid(mContext, symbol);
+        }
+
+        // Send broadcast about invalid quote.
+        Intent invalidData = new Intent(MainActivity.ACTION_QUOTE_INVALID);
+        invalidData.putExtra(MainActivity.ACTION_QUOTE_SYMBOL, symbol);
+        mContext.sendBroadcast(invalidData);
+    }
+
+    @Override
+    public Map<String, Long> getNewestStoredQuotes(Calendar windowStart,
+                                                   Collection<String> symbols) {
+        StringBuilder selection = new StringBuilder(Contract.History.COLUMN_DATE + " >= ?");
+        List<String> selectionArgs = new ArrayList<>();
+        selectionArgs.add(String.valueOf(windowStart.getTimeInMillis()));
+        if (symbols != null) {
+            if (symbols.isEmpty()) {
+                return new HashMap<>();
+            }
+
+            // Only the history of these stocks is needed, don't read the whole table.
+            selection.append(" AND ").append(Contract.History.COLUMN_SYMBOL).append(" IN (");
+            for (String symbol : symbols) {
+                selection.append(selectionArgs.size() > 1 ? ",?" : "?");
+                selectionArgs.add(symbol);
+            }
+            selection.append(')');
+        }
+
+        Cursor cursor = mContext.getContentResolver().query(
+                Contract.History.URI,
+                IncrementalHistory.PROJECTION,
+                selection.toString(),
+                selectionArgs.toArray(new String[selectionArgs.size()]),
+                IncrementalHistory.SORT_ORDER);
+
+        if (cursor == null) {
+            return new HashMap<>();
+        }
+
+        try {
+            return IncrementalHistory.newestTimestamps(cursor);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Override
+    public void store(Collection<Quote> quotes, Map<String, List<HistoricalQuote>> histories,
+                      Calendar startOfWeek) {
+        ArrayList<ContentValues> quoteCVs = new ArrayList<>();
+        ArrayList<ContentValues> historyCVs = new ArrayList<>();
+        for (Quote quote : quotes) {
+            String symbol = quote.getSymbol();
+            float price = quote.getPrice();
+            float change = quote.getChange();
+            float percentChange = quote.getChangeInPercent();
+
+            ContentValues quoteCV = new ContentValues();
+            quoteCV.put(Contract.Quote.COLUMN_SYMBOL, symbol);
+            quoteCV.put(Contract.Quote.COLUMN_PRICE, price);
+            quoteCV.put(Contract.Quote.COLUMN_PERCENTAGE_CHANGE, percentChange);
+            quoteCV.put(Contract.Quote.COLUMN_ABSOLUTE_CHANGE, change);
+
+            quoteCVs.add(quoteCV);
+
+            List<HistoricalQuote> history = histories.get(symbol);
+            if (history == null) {
+                continue;
+            }
+            IncrementalHistory.toContentValues(symbol, history, historyCVs);
+            historyCVs.add(IncrementalHistory.currentWeekToContentValues(
+                    symbol, price, startOfWeek));
+        }
+
+        ContentResolver resolver = mContext.getContentResolver();
+        int changedQuotes = resolver.bulkInsert(
+                Contract.Quote.URI,
+                quoteCVs.toArray(new ContentValues[quoteCVs.size()]));
+        resolver.bulkInsert(
+                Contract.History.URI,
+                historyCVs.toArray(new ContentValues[historyCVs.size()]));
+
+        // There is no need to wake up anybody when nothing has changed. The broadcast
+        // is received only by the widget, which shows quotes without their history.
+        // Screens showing the history are notified by the provider.
+        if (changedQuotes > 0) {
+            Intent dataUpdatedIntent = new Intent(QuoteSyncJob.ACTION_DATA_UPDATED);
+            mContext.sendBroadcast(dataUpdatedIntent);
+        }
+    }
+
+    @Override
+    public void finishFullSync(Calendar windowStart) {
+        // Quotes which went out of the history window are not needed anymore,
+        // and the last synchronisation time is the time when all stocks were updated.
+        mContext.getContentResolver().delete(
+                Contract.History.URI,
+                Contract.History.COLUMN_DATE + " < ?",
+                new String[]{String.valueOf(windowStart.getTimeInMillis())});
+
+        PrefUtils.updateSyncTime(mContext);
+    }
+}
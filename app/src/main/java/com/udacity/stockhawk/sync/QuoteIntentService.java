@@ -2,6 +2,7 @@ package com.udacity.stockhawk.sync;
 
 import android.app.IntentService;
 import android.content.Intent;
+import android.os.SystemClock;
 
 import timber.log.Timber;
 
@@ -15,6 +16,24 @@ public class QuoteIntentService extends IntentService {
     @Override
     protected void onHandleIntent(Intent intent) {
         Timber.d("Intent handled");
-        QuoteSyncJob.getQuotes(getApplicationContext());
+
+        // Requests which came in the meantime are handled by a single run.
+        SyncCoordinator coordinator = SyncCoordinator.getInstance();
+        SyncCoordinator.Run run = coordinator.beginRun(SystemClock.elapsedRealtime());
+        if (run == null) {
+            Timber.d("Nothing to synchronize");
+        } else {
+            boolean success = false;
+            try {
+                success = QuoteSyncJob.getQuotes(
+                        getApplicationContext(), run.full ? null : run.symbols);
+            } finally {
+                coordinator.finishRun(run, success);
+            }
+        }
+
+        // Next synchronization depends on the market sessions, so it is scheduled
+        // after every run.
+        QuoteSyncJob.scheduleNext(getApplicationContext());
     }
 }
@@ -2,7 +2,6 @@ package com.udacity.stockhawk.sync;
 
 import android.app.job.JobParameters;
 import android.app.job.JobService;
-import android.content.Intent;
 
 import timber.log.Timber;
 
@@ -12,9 +11,11 @@ public class QuoteJobService extends JobService {
     @Override
     public boolean onStartJob(JobParameters jobParameters) {
         Timber.d("Intent handled");
-        Intent nowIntent = new Intent(getApplicationContext(), QuoteIntentService.class);
-        getApplicationContext().startService(nowIntent);
-        return true;
+        QuoteSyncJob.syncScheduled(getApplicationContext());
+
+        // Synchronization runs in the service and the next job is scheduled after it,
+        // so there is no work left for this job.
+        return false;
     }
 
     @Override
@@ -0,0 +1,62 @@
+package com.udacity.stockhawk.sync;
+
+import com.udacity.stockhawk.api.Quote;
+
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import yahoofinance.histquotes.HistoricalQuote;
+
+/**
+ * Storage of the synchronized stocks, their quotes and history.
+ */
+interface QuoteStore {
+
+    /**
+     * @return symbols of all stocks which should be synchronized
+     */
+    Set<String> getStocks();
+
+    /**
+     * Remove the stock whose symbol has been rejected by the API.
+     *
+     * @param symbol   of the invalid stock
+     * @param remember true if symbol should be remembered as invalid
+     */
+    void removeInvalidStock(String symbol, boolean remember);
+
+    /**
+     * Find the newest stored history quote of every stock.
+     * Stocks whose stored history contains a gap are omitted.
+     *
+     * @param windowStart date of the oldest quote which we want to keep
+     * @param symbols     of the stocks which are synchronized or null for all stocks
+     * @return map of the stock symbols and timestamps of their newest quote
+     */
+    Map<String, Long> getNewestStoredQuotes(Calendar windowStart, Collection<String> symbols);
+
+    /**
+     * Store the quotes and the history in a single batch.
+     * <p>
+     * Quote of the current week is stored only for the stocks present in the history map,
+     * because completed weeks of the others have not been downloaded yet, and they would
+     * never be downloaded after a quote newer than them.
+     *
+     * @param quotes      current quotes of the stocks
+     * @param histories   map of the stock symbols and their newly downloaded history
+     *                    (empty when stored history is up to date)
+     * @param startOfWeek start of the current week, market time
+     */
+    void store(Collection<Quote> quotes, Map<String, List<HistoricalQuote>> histories,
+               Calendar startOfWeek);
+
+    /**
+     * Finish the synchronization of all stocks.
+     *
+     * @param windowStart date of the oldest quote which we want to keep
+     */
+    void finishFullSync(Calendar windowStart);
+}
@@ -0,0 +1,204 @@
+package com.udacity.stockhawk.sync;
+
+import com.udacity.stockhawk.api.CircuitBreaker;
+import com.udacity.stockhawk.api.FinanceAPI;
+import com.udacity.stockhawk.api.Quote;
+import com.udacity.stockhawk.api.QuoteSource;
+import com.udacity.stockhawk.api.Retry;
+
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import timber.log.Timber;
+import yahoofinance.histquotes.HistoricalQuote;
+
+/**
+ * Synchronization of the stock quotes and their history.
+ * <p>
+ * Quotes are fetched from the {@link QuoteSource} and written to the {@link QuoteStore},
+ * so synchronization does not depend on the network or on the Android storage.
+ * Circuit breakers are kept between synchronizations, so the same instance should be
+ * used for all of them.
+ */
+final class QuoteSync {
+
+    /**
+     * Number of the weeks of history which we keep. History window starts at the beginning
+     * of the week, so it has one week more to cover at least two years.
+     */
+    private static final int WEEKS_OF_HISTORY = 105;
+
+    private final QuoteSource mSource;
+    private final Clock mClock;
+    private final Retry mQuotesRetry;
+    private final HistoryFetcher mHistoryFetcher;
+
+    /**
+     * Quote requests are suspended for a while when endpoint keeps failing.
+     */
+    private final CircuitBreaker mQuotesBreaker =
+            new CircuitBreaker(3, TimeUnit.MINUTES.toMillis(15));
+
+    /**
+     * @param source          of the quotes and history
+     * @param clock           source of the current time
+     * @param historyPoolSize maximum number of history requests executed at the same time
+     */
+    QuoteSync(QuoteSource source, Clock clock, int historyPoolSize) {
+        this(source, clock, new Retry(3, 1000, 8000),
+                new HistoryFetcher(source, historyPoolSize, clock));
+    }
+
+    QuoteSync(QuoteSource source, Clock clock, Retry quotesRetry,
+              HistoryFetcher historyFetcher) {
+        mSource = source;
+        mClock = clock;
+        mQuotesRetry = quotesRetry;
+        mHistoryFetcher = historyFetcher;
+    }
+
+    /**
+     * Fetch quotes and their history and store them.
+     *
+     * @param store   of the stocks
+     * @param symbols of the stocks which should be synchronized or null for all stocks
+     * @return true if data has been synchronized
+     */
+    boolean sync(QuoteStore store, Set<String> symbols) {
+
+        boolean full = symbols == null;
+        Timber.d(full ? "Running sync job" : "Running sync job for %s", symbols);
+
+        Calendar now = Calendar.getInstance();
+        now.setTimeInMillis(mClock.currentTimeMillis());
+        Calendar from = getWindowStart(now);
+
+        // Only the completed weeks are downloaded. Quote of the current week changes until
+        // the week ends, so it is taken from the current price instead.
+        Calendar startOfWeek = FinanceAPI.getStartOfWeek(now);
+        Calendar to = (Calendar) startOfWeek.clone();
+        to.add(Calendar.DAY_OF_MONTH, -1);
+
+        try {
+            Set<String> stockCopy = new HashSet<>();
+            stockCopy.addAll(store.getStocks());
+
+            // Stock could be removed before its synchronization has started.
+            if (!full) {
+                stockCopy.retainAll(symbols);
+            } else {
+                mHistoryFetcher.retainStocks(stockCopy);
+            }
+            final String[] stockArray = stockCopy.toArray(new String[stockCopy.size()]);
+
+            Timber.d(stockCopy.toString());
+            if (stockArray.length == 0) {
+                return true;
+            }
+
+            if (!mQuotesBreaker.allowRequest(mClock.currentTimeMillis())) {
+                Timber.w("Quote requests are suspended after repeated failures");
+                return false;
+            }
+
+            Map<String, Quote> quotes = null;
+            try {
+                quotes = mQuotesRetry.call(new Callable<Map<String, Quote>>() {
+                    @Override
+                    public Map<String, Quote> call() throws IOException {
+                        return mSource.getQuotes(stockArray);
+                    }
+                });
+            } finally {
+                // Any unexpected exception has to be recorded as well, otherwise a trial
+                // request would keep the breaker open forever.
+                if (quotes != null) {
+                    mQuotesBreaker.recordSuccess();
+                } else {
+                    mQuotesBreaker.recordFailure(mClock.currentTimeMillis());
+                }
+            }
+            // Response without any quote is rather broken than a proof that all stocks
+            // are invalid, so don't remove them.
+            if (full && quotes.isEmpty()) {
+                throw new IOException("No quotes have been returned");
+            }
+
+            Timber.d(quotes.toString());
+            Map<String, Quote> validStocks = new HashMap<>();
+            for (String symbol : stockCopy) {
+
+                // Quotes of invalid symbols (without a price or with special characters)
+                // are not returned at all.
+                if (quotes.containsKey(symbol)) {
+                    validStocks.put(symbol, quotes.get(symbol));
+                    continue;
+                }
+
+                // Only the symbols which have just been added are remembered as invalid.
+                // A stock missing in the full synchronization could be dropped by a broken
+                // response, and it should not be blocked because of that.
+                store.removeInvalidStock(symbol, !full);
+            }
+
+            // For stocks which already have a history, we need to download only quotes
+            // since the newest stored one, and nothing at all when it is the quote of the
+            // current week. Whole history is downloaded only for new stocks or when stored
+            // history contains a gap.
+            Map<String, Long> newestStored =
+                    store.getNewestStoredQuotes(from, full ? null : validStocks.keySet());
+            Map<String, Calendar> historyFrom = new HashMap<>();
+            Map<String, List<HistoricalQuote>> histories = new HashMap<>();
+            for (String symbol : validStocks.keySet()) {
+                Long newest = newestStored.get(symbol);
+                if (newest == null) {
+                    historyFrom.put(symbol, from);
+                } else if (newest <= to.getTimeInMillis()) {
+                    Calendar stockFrom = Calendar.getInstance();
+                    stockFrom.setTimeInMillis(newest);
+                    historyFrom.put(symbol, stockFrom);
+                } else {
+                    histories.put(symbol, Collections.<HistoricalQuote>emptyList());
+                }
+            }
+
+            // WARNING! Don't request historical data for a stock that doesn't exist!
+            // The request will hang until its timeout X_x
+            // History which could not be fetched this time is missing in the result,
+            // so we keep the history which we already have and try again next time.
+            histories.putAll(mHistoryFetcher.fetch(historyFrom, to));
+
+            store.store(validStocks.values(), histories, startOfWeek);
+            if (full) {
+                store.finishFullSync(from);
+            }
+
+            return true;
+        } catch (IOException exception) {
+            Timber.e(exception, "Error fetching stock quotes");
+            return false;
+        }
+    }
+
+    /**
+     * Find the date of the oldest quote which we want to keep. It is counted in whole weeks
+     * from the start of the current week, so a request for the whole history of the stock
+     * stays the same for the whole week, and it can be served from the cache.
+     *
+     * @param now current time
+     * @return start of the history window, market time
+     */
+    static Calendar getWindowStart(Calendar now) {
+        Calendar windowStart = FinanceAPI.getStartOfWeek(now);
+        windowStart.add(Calendar.WEEK_OF_YEAR, -WEEKS_OF_HISTORY);
+        return windowStart;
+    }
+}
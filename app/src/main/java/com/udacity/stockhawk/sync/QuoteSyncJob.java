@@ -3,171 +3,147 @@ package com.udacity.stockhawk.sync;
 import android.app.job.JobInfo;
 import android.app.job.JobScheduler;
 import android.content.ComponentName;
-import android.content.ContentValues;
 import android.content.Context;
 import android.content.Intent;
-import android.os.Build;
+import android.os.SystemClock;
 
+import com.udacity.stockhawk.R;
 import com.udacity.stockhawk.Utility;
-import com.udacity.stockhawk.api.FinanceAPI;
-import com.udacity.stockhawk.data.Contract;
-import com.udacity.stockhawk.data.PrefUtils;
-import com.udacity.stockhawk.ui.MainActivity;
-
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
+import com.udacity.stockhawk.api.ChunkedQuoteSource;
+import com.udacity.stockhawk.api.HttpClient;
+import com.udacity.stockhawk.api.YahooQuoteSource;
+
+import java.util.Collections;
 import java.util.Set;
 
 import timber.log.Timber;
-import yahoofinance.Stock;
-import yahoofinance.histquotes.HistoricalQuote;
-import yahoofinance.histquotes.Interval;
-import yahoofinance.quotes.stock.StockQuote;
 
 public final class QuoteSyncJob {
 
     private static final int ONE_OFF_ID = 2;
     public static final String ACTION_DATA_UPDATED = "com.udacity.stockhawk.ACTION_DATA_UPDATED";
-    private static final int PERIOD = 300000;
     private static final int INITIAL_BACKOFF = 10000;
     private static final int PERIODIC_ID = 1;
-    private static final int YEARS_OF_HISTORY = 2;
+
+    /**
+     * Synchronization is created once, because it keeps circuit breakers between the runs.
+     */
+    private static QuoteSync sSync;
 
     private QuoteSyncJob() {
     }
 
-    static void getQuotes(Context context) {
+    private static synchronized QuoteSync getSync(Context context) {
+        if (sSync == null) {
+            sSync = new QuoteSync(new ChunkedQuoteSource(new YahooQuoteSource()), Clock.SYSTEM,
+                    context.getResources().getInteger(R.integer.sync_history_pool_size));
+        }
+
+        return sSync;
+    }
 
-        Timber.d("Running sync job");
+    /**
+     * Fetch quotes and their history.
+     *
+     * @param context of the application
+     * @param symbols of the stocks which should be synchronized or null for all stocks
+     * @return true if data has been synchronized
+     */
+    static boolean getQuotes(Context context, Set<String> symbols) {
+        boolean synced = getSync(context).sync(new ProviderQuoteStore(context), symbols);
+
+        Timber.d("Network traffic since start: %s", HttpClient.getMetrics());
+        Timber.d("HTTP cache since start: %s", HttpClient.getCacheStats());
+        return synced;
+    }
 
-        Calendar from = Calendar.getInstance();
-        Calendar to = Calendar.getInstance();
-        from.add(Calendar.YEAR, -YEARS_OF_HISTORY);
+    /**
+     * Schedule the next synchronization according to the market sessions.
+     * Scheduled job replaces the previous one.
+     *
+     * @param context of the application
+     */
+    static void scheduleNext(Context context) {
+        long delay = MarketSchedule.fromResources(context, Clock.SYSTEM).getDelayToNextSync();
+        Timber.d("Scheduling next sync in %d ms", delay);
 
-        try {
-            Set<String> stockPref = PrefUtils.getStocks(context);
-            Set<String> stockCopy = new HashSet<>();
-            stockCopy.addAll(stockPref);
-            String[] stockArray = stockPref.toArray(new String[stockPref.size()]);
+        JobInfo.Builder builder = new JobInfo.Builder(
+                PERIODIC_ID, new ComponentName(context, QuoteJobService.class));
+        builder.setRequiredNetworkType(JobInfo.NETWORK_TYPE_ANY)
+                .setMinimumLatency(delay);
 
-            Timber.d(stockCopy.toString());
-            if (stockArray.length == 0) {
-                return;
-            }
+        JobScheduler scheduler =
+                (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        scheduler.schedule(builder.build());
+    }
 
-            //Map<String, Stock> quotes = YahooFinance.get(stockArray);
-            Map<String, Stock> quotes = FinanceAPI.get(stockArray);
-            Iterator<String> iterator = stockCopy.iterator();
-
-            Timber.d(quotes.toString());
-            ArrayList<ContentValues> quoteCVs = new ArrayList<>();
-            while (iterator.hasNext()) {
-                String symbol = iterator.next();
-
-                // Determine if stock symbol is exist because sometimes
-                // API can return empty line for invalid symbol...
-                if (quotes.containsKey(symbol)) {
-                    Stock stock = quotes.get(symbol);
-                    StockQuote quote = stock.getQuote();
-
-                    // ... and sometimes an library can build invalid object.
-                    if (quote.getPrice() != null) {
-                        float price = quote.getPrice().floatValue();
-                        float change = quote.getChange().floatValue();
-                        float percentChange = quote.getChangeInPercent().floatValue();
-
-                        // WARNING! Don't request historical data for a stock that doesn't exist!
-                        // The request will hang forever X_x
-                        List<HistoricalQuote> history = stock.getHistory(from, to, Interval.WEEKLY);
-                        StringBuilder historyBuilder = new StringBuilder();
-                        for (HistoricalQuote it : history) {
-                            historyBuilder.append(it.getDate().getTimeInMillis());
-                            historyBuilder.append(", ");
-                            historyBuilder.append(it.getClose());
-                            historyBuilder.append("\n");
-                        }
-
-                        ContentValues quoteCV = new ContentValues();
-                        quoteCV.put(Contract.Quote.COLUMN_SYMBOL, symbol);
-                        quoteCV.put(Contract.Quote.COLUMN_PRICE, price);
-                        quoteCV.put(Contract.Quote.COLUMN_PERCENTAGE_CHANGE, percentChange);
-                        quoteCV.put(Contract.Quote.COLUMN_ABSOLUTE_CHANGE, change);
-                        quoteCV.put(Contract.Quote.COLUMN_HISTORY, historyBuilder.toString());
-
-                        quoteCVs.add(quoteCV);
-                        continue;
-                    }
-                }
-
-                // If stock symbol does not exists... remove it from preferences.
-                // We don't need to cleanup database, because we did not put there
-                // any data when it is not exist ;)
-                PrefUtils.removeStock(context, symbol);
-
-                // Send broadcast about invalid quote.
-                Intent invalidData = new Intent(MainActivity.ACTION_QUOTE_INVALID);
-                invalidData.putExtra(MainActivity.ACTION_QUOTE_SYMBOL, symbol);
-                context.sendBroadcast(invalidData);
+    public static synchronized void initialize(final Context context) {
+        // Job reschedules itself after every synchronization, so it has to be scheduled
+        // only once. Periodic job comes from the previous version of the application.
+        JobScheduler scheduler =
+                (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        for (JobInfo job : scheduler.getAllPendingJobs()) {
+            if (job.getId() == PERIODIC_ID && !job.isPeriodic()) {
+                return;
             }
+        }
 
-            context.getContentResolver()
-                    .bulkInsert(
-                            Contract.Quote.URI,
-                            quoteCVs.toArray(new ContentValues[quoteCVs.size()]));
+        scheduleNext(context);
+    }
 
-            // Save last synchronisation time
-            PrefUtils.updateSyncTime(context);
+    /**
+     * Synchronize all stocks as soon as possible.
+     * Request joins synchronization which is already queued or running.
+     *
+     * @param context of the application
+     * @return false if synchronization has been skipped, because data is up to date
+     */
+    public static synchronized boolean syncImmediately(Context context) {
+        int result = SyncCoordinator.getInstance().requestFullSync(SystemClock.elapsedRealtime());
+        if (result == SyncCoordinator.THROTTLED) {
+            Timber.d("Data has been synchronized a moment ago");
+            return false;
+        }
 
-            Intent dataUpdatedIntent = new Intent(ACTION_DATA_UPDATED);
-            context.sendBroadcast(dataUpdatedIntent);
-        } catch (IOException exception) {
-            Timber.e(exception, "Error fetching stock quotes");
+        if (result == SyncCoordinator.STARTED) {
+            startSyncService(context);
         }
+        return true;
     }
 
-
-    private static void schedulePeriodic(Context context) {
-        Timber.d("Scheduling a periodic task");
-        JobInfo.Builder builder = new JobInfo.Builder(
-                PERIODIC_ID, new ComponentName(context, QuoteJobService.class));
-
-        // If SDK version is N and above, we have to use different method to set periodic tasks
-        // Unfortunately on N version recurring time will be approx. 25 min :(
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
-            // Recurring job in N version should recur with the provided interval and flex.
-            // The job can execute at any time in a window of flex length at the end of the period.
-            long flexMillis = JobInfo.getMinFlexMillis();
-            long minFlexTime = (long) (PERIOD * 0.05);
-            if (minFlexTime > flexMillis) {
-                flexMillis = minFlexTime;
-            }
-
-            // flexMillis is millisecond flex for this job. Flex is clamped to be at least
-            // getMinFlexMillis() or 5% of the period, whichever is higher.
-            builder.setRequiredNetworkType(JobInfo.NETWORK_TYPE_ANY)
-                    .setPeriodic(PERIOD, flexMillis)
-                    .setBackoffCriteria(INITIAL_BACKOFF, JobInfo.BACKOFF_POLICY_EXPONENTIAL);
-        } else {
-            builder.setRequiredNetworkType(JobInfo.NETWORK_TYPE_ANY)
-                    .setPeriodic(PERIOD)
-                    .setBackoffCriteria(INITIAL_BACKOFF, JobInfo.BACKOFF_POLICY_EXPONENTIAL);
+    /**
+     * Synchronize newly added stock as soon as possible.
+     * Only this stock is fetched, unless a full synchronization is already queued.
+     *
+     * @param context of the application
+     * @param symbol  of the added stock
+     */
+    public static synchronized void syncStock(Context context, String symbol) {
+        int result = SyncCoordinator.getInstance().requestSymbols(Collections.singleton(symbol));
+        if (result == SyncCoordinator.STARTED) {
+            startSyncService(context);
         }
-
-        JobScheduler scheduler =
-                (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
-        scheduler.schedule(builder.build());
     }
 
-    public static synchronized void initialize(final Context context) {
-        schedulePeriodic(context);
+    /**
+     * Run synchronization requested by the scheduled job.
+     *
+     * @param context of the application
+     */
+    static synchronized void syncScheduled(Context context) {
+        int result = SyncCoordinator.getInstance().requestFullSync(SystemClock.elapsedRealtime());
+
+        // Job can be the one scheduled when network was not available, so service has to be
+        // started even if request has joined the queued run. Service skips empty runs
+        // and schedules the next synchronization.
+        if (result != SyncCoordinator.THROTTLED) {
+            context.startService(new Intent(context, QuoteIntentService.class));
+        } else {
+            scheduleNext(context);
+        }
     }
 
-    public static synchronized void syncImmediately(Context context) {
+    private static void startSyncService(Context context) {
         if (Utility.isNetworkAvailable(context)) {
             Intent nowIntent = new Intent(context, QuoteIntentService.class);
             context.startService(nowIntent);
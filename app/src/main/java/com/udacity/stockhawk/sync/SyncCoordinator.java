@@ -0,0 +1,154 @@
+package com.udacity.stockhawk.sync;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coordinator which collapses concurrent synchronization requests.
+ * <p>
+ * Synchronization can be requested from many places (pull to refresh, adding a stock,
+ * periodic and one-off jobs). Instead of queueing a full synchronization for each of them:
+ * <ul>
+ * <li>a full synchronization requested while another one is queued or running joins it,</li>
+ * <li>a full synchronization requested while only specific symbols are synchronized
+ * is queued after that run,</li>
+ * <li>requests for specific symbols are merged into the next run,</li>
+ * <li>full synchronizations are not repeated more often than {@link #MIN_FULL_SYNC_INTERVAL}.</li>
+ * </ul>
+ * All methods take the current time as a parameter, so coordinator does not depend
+ * on the system clock.
+ */
+final class SyncCoordinator {
+
+    /**
+     * Minimum time between two full synchronizations.
+     */
+    static final long MIN_FULL_SYNC_INTERVAL = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * Request has started a new run, which should be sent to the sync service.
+     */
+    static final int STARTED = 0;
+
+    /**
+     * Request has joined a run which is already queued or running.
+     */
+    static final int JOINED = 1;
+
+    /**
+     * Request has been dropped, because data has been synchronized a moment ago.
+     */
+    static final int THROTTLED = 2;
+
+    private static final SyncCoordinator INSTANCE = new SyncCoordinator();
+
+    private final Set<String> mPendingSymbols = new HashSet<>();
+    private boolean mPendingFull;
+    private boolean mQueued;
+    private boolean mRunning;
+    private boolean mRunningFull;
+    private long mLastFullSync = -MIN_FULL_SYNC_INTERVAL;
+
+    SyncCoordinator() {
+    }
+
+    static SyncCoordinator getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Request a synchronization of all stocks.
+     *
+     * @param now current time in milliseconds
+     * @return {@link #STARTED}, {@link #JOINED} or {@link #THROTTLED}
+     */
+    synchronized int requestFullSync(long now) {
+        // Queued run may contain only symbols, so it has to become a full one.
+        if (mQueued) {
+            mPendingFull = true;
+            return JOINED;
+        }
+
+        if (mRunning && mRunningFull) {
+            return JOINED;
+        }
+
+        if (now - mLastFullSync < MIN_FULL_SYNC_INTERVAL) {
+            return THROTTLED;
+        }
+
+        mPendingFull = true;
+        mQueued = true;
+        return STARTED;
+    }
+
+    /**
+     * Request a synchronization of the specific stocks.
+     * Symbols are merged into the next run, even if synchronization is running right now.
+     *
+     * @param symbols which should be synchronized
+     * @return {@link #STARTED} or {@link #JOINED}
+     */
+    synchronized int requestSymbols(Collection<String> symbols) {
+        mPendingSymbols.addAll(symbols);
+        if (mQueued) {
+            return JOINED;
+        }
+
+        mQueued = true;
+        return STARTED;
+    }
+
+    /**
+     * Take all pending requests, as a single run.
+     *
+     * @param now current time in milliseconds
+     * @return run which should be executed or null if there is nothing to do
+     */
+    synchronized Run beginRun(long now) {
+        mQueued = false;
+        if (!mPendingFull && mPendingSymbols.isEmpty()) {
+            return null;
+        }
+
+        Run run = new Run(mPendingFull, mPendingSymbols, now);
+        mPendingFull = false;
+        mPendingSymbols.clear();
+        mRunning = true;
+        mRunningFull = run.full;
+        return run;
+    }
+
+    /**
+     * Mark a run as finished.
+     *
+     * @param run     which has finished
+     * @param success flag whether data has been synchronized
+     */
+    synchronized void finishRun(Run run, boolean success) {
+        mRunning = false;
+        mRunningFull = false;
+        if (run.full && success) {
+            mLastFullSync = run.startTime;
+        }
+    }
+
+    /**
+     * Requests merged into a single synchronization run.
+     */
+    static final class Run {
+
+        final boolean full;
+        final Set<String> symbols;
+        final long startTime;
+
+        Run(boolean full, Set<String> symbols, long startTime) {
+            this.full = full;
+            this.symbols = Collections.unmodifiableSet(new HashSet<>(symbols));
+            this.startTime = startTime;
+        }
+    }
+}
@@ -1,12 +1,10 @@
 package com.udacity.stockhawk.ui;
 
 import android.content.Intent;
-import android.database.Cursor;
 import android.net.Uri;
 import android.os.Bundle;
 import android.support.v4.app.LoaderManager;
 import android.support.v4.content.ContextCompat;
-import android.support.v4.content.CursorLoader;
 import android.support.v4.content.Loader;
 import android.support.v7.app.ActionBar;
 import android.support.v7.app.AppCompatActivity;
@@ -18,30 +16,18 @@ import android.view.View;
 import android.widget.TextView;
 
 import com.github.mikephil.charting.charts.LineChart;
-import com.github.mikephil.charting.components.AxisBase;
 import com.github.mikephil.charting.components.XAxis;
-import com.github.mikephil.charting.data.Entry;
-import com.github.mikephil.charting.data.LineData;
-import com.github.mikephil.charting.data.LineDataSet;
-import com.github.mikephil.charting.formatter.IAxisValueFormatter;
 import com.udacity.stockhawk.R;
-import com.udacity.stockhawk.Utility;
-import com.udacity.stockhawk.data.Contract;
 import com.udacity.stockhawk.data.PrefUtils;
 import com.udacity.stockhawk.ui.chart.DetailsMarkerView;
 
-import java.text.DateFormat;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 import butterknife.BindView;
 import butterknife.ButterKnife;
 import timber.log.Timber;
-import yahoofinance.histquotes.HistoricalQuote;
 
 public class DetailsActivity extends AppCompatActivity
-        implements LoaderManager.LoaderCallbacks<Cursor>, DetailsMarkerView.ChartTickerClickHandler {
+        implements LoaderManager.LoaderCallbacks<StockDetails>,
+        DetailsMarkerView.ChartTickerClickHandler {
 
     /**
      * View elements
@@ -77,10 +63,11 @@ public class DetailsActivity extends AppCompatActivity
     private QuoteHistoryAdapter mHistoryAdapter;
 
     /**
-     * Loader ID for fetch selected stock quote.
+     * Loader ID for fetch selected stock quote with its history.
      */
     private static final int SINGLE_STOCK_LOADER_ID = 2135;
 
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -108,6 +95,9 @@ public class DetailsActivity extends AppCompatActivity
         mHistoryList.setLayoutManager(new LinearLayoutManager(this));
         mHistoryList.setAdapter(mHistoryAdapter);
 
+        // Setup a chart
+        setupChart();
+
         // Initialize loader.
         Timber.d("Stock URI: %s", stockUri.toString());
         getSupportLoaderManager().initLoader(SINGLE_STOCK_LOADER_ID, null, this);
@@ -125,13 +115,10 @@ public class DetailsActivity extends AppCompatActivity
     }
 
     @Override
-    public Loader<Cursor> onCreateLoader(int id, Bundle args) {
+    public Loader<StockDetails> onCreateLoader(int id, Bundle args) {
         switch (id) {
             case SINGLE_STOCK_LOADER_ID:
-                return new CursorLoader(this,
-                        stockUri,
-                        Contract.Quote.QUOTE_COLUMNS.toArray(new String[]{}),
-                        null, null, null);
+                return new StockDetailsLoader(this, stockUri);
 
             default:
                 throw new RuntimeException("Loader under provided ID is not implemented.");
@@ -139,56 +126,30 @@ public class DetailsActivity extends AppCompatActivity
     }
 
     @Override
-    public void onLoadFinished(Loader<Cursor> loader, Cursor data) {
+    public void onLoadFinished(Loader<StockDetails> loader, StockDetails details) {
         switch (loader.getId()) {
             case SINGLE_STOCK_LOADER_ID:
-                if (data != null && data.moveToFirst()) {
-                    // Get data from the cursor
-                    float price =
-                            data.getFloat(Contract.Quote.POSITION_PRICE);
-                    String priceDescription = getString(
-                            R.string.price_content_description, Utility.formatPrice(price));
-                    String history =
-                            data.getString(Contract.Quote.POSITION_HISTORY);
-                    String quoteSymbol =
-                            data.getString(Contract.Quote.POSITION_SYMBOL);
-                    float absoluteChange =
-                            data.getFloat(Contract.Quote.POSITION_ABSOLUTE_CHANGE);
-                    String absoluteChangeDescription = getString(
-                            R.string.absolute_price_change_content_description,
-                            Utility.formatAbsoluteChange(absoluteChange));
-                    float percentageChange =
-                            data.getFloat(Contract.Quote.POSITION_PERCENTAGE_CHANGE);
-                    String percentageChangeDescription = getString(
-                            R.string.percentage_price_change_content_description,
-                            Utility.formatPercentageChange(percentageChange));
-                    ArrayList<HistoricalQuote> quotesHistory
-                            = Utility.parseHistoryString(history);
-
-                    // Change color of price whether current quote show profit or loss.
-                    int valueColor = Utility.determineColor(this, absoluteChange);
-
-                    // Prepare history chart
-                    LineData lineData = prepareChart(new ArrayList<>(quotesHistory));
-
-                    // Show data on the screen
-                    mActionBar.setTitle(quoteSymbol);
-                    mCurrentPrice.setTextColor(valueColor);
-                    mCurrentPrice.setText(Utility.formatPrice(price));
-                    mCurrentPrice.setContentDescription(priceDescription);
-                    mChangeAbsolute.setTextColor(valueColor);
-                    mChangeAbsolute.setText(Utility.formatAbsoluteChange(absoluteChange));
-                    mChangeAbsolute.setContentDescription(absoluteChangeDescription);
-                    mChangePercentage.setTextColor(valueColor);
-                    mChangePercentage.setText(Utility.formatPercentageChange(percentageChange));
-                    mChangePercentage.setContentDescription(percentageChangeDescription);
+                // Everything is already prepared by the loader,
+                // so we only need to show it on the screen.
+                if (details != null) {
+                    mActionBar.setTitle(details.symbol);
+                    mCurrentPrice.setTextColor(details.valueColor);
+                    mCurrentPrice.setText(details.price);
+                    mCurrentPrice.setContentDescription(details.priceDescription);
+                    mChangeAbsolute.setTextColor(details.valueColor);
+                    mChangeAbsolute.setText(details.absoluteChange);
+                    mChangeAbsolute.setContentDescription(details.absoluteChangeDescription);
+                    mChangePercentage.setTextColor(details.valueColor);
+                    mChangePercentage.setText(details.percentageChange);
+                    mChangePercentage.setContentDescription(details.percentageChangeDescription);
 
                     // Set data and refresh chart with animation
-                    chart.setData(lineData);
+                    chart.getXAxis().setValueFormatter(details.chartAdapter);
+                    chart.setData(details.chartData);
                     chart.animateX(1000);
 
                     // Show history data in recycler view.
-                    mHistoryAdapter.setData(quotesHistory);
+                    mHistoryAdapter.setData(details.history);
 
                     // Show last synchronization info.
                     manageLastSynchronizationInfo();
@@ -205,7 +166,7 @@ public class DetailsActivity extends AppCompatActivity
     }
 
     @Override
-    public void onLoaderReset(Loader<Cursor> loader) {
+    public void onLoaderReset(Loader<StockDetails> loader) {
     }
 
     /**
@@ -226,20 +187,9 @@ public class DetailsActivity extends AppCompatActivity
 
     /**
      * Prepare chart for displaying data.
-     *
-     * @param quotesHistory which we want to show on the graph.
-     * @return Configured line data for the chart.
+     * Data of the chart is prepared by the loader, here we only configure its look.
      */
-    private LineData prepareChart(ArrayList<HistoricalQuote> quotesHistory) {
-        if (quotesHistory == null) {
-            return null;
-        }
-
-        // When we are downloading data from the the Yahoo finance, we receive a data ordered
-        // from newest to older. As we want to draw a chart which starts from the older data
-        // and ends on the most recent data we need to reverse data array.
-        Collections.reverse(quotesHistory);
-
+    private void setupChart() {
         // Set allowed interactions with the chart.
         chart.setPinchZoom(false);
         chart.setDescription(null);
@@ -255,6 +205,11 @@ public class DetailsActivity extends AppCompatActivity
         chart.getAxisRight().setEnabled(false);
 
         // Configure X Axis
+        // A date on the right edge of X axis is little bit clipped.
+        // It is known bug of the chart library :( Solution for this problem was supposed
+        // to be a setting setAvoidFirstLastClipping for X axis...
+        // and it solves a problem... partially.
+        // Left label is now fine but label on right side is still clipped.
         XAxis xAxis = chart.getXAxis();
         xAxis.setPosition(XAxis.XAxisPosition.BOTTOM_INSIDE);
         xAxis.setDrawAxisLine(true);
@@ -263,52 +218,11 @@ public class DetailsActivity extends AppCompatActivity
         xAxis.setLabelCount(5, true);
         xAxis.setAvoidFirstLastClipping(true);
 
-        // Prepare chart data abd labels
-        List<Entry> entries = new ArrayList<>();
-        final ArrayList<String> xLabels = new ArrayList<>();
-        for (float index = 0; index < quotesHistory.size(); index++) {
-            HistoricalQuote historicalQuote = quotesHistory.get((int) index);
-
-            // Set price for the quote.
-            float historicalPrice = 0;
-            if (historicalQuote.getClose() != null) {
-                historicalPrice = historicalQuote.getClose().floatValue();
-            }
-
-            // For chart purpose we need create entry object and fill its data with
-            // proper X and Y values. As a values must be a floats, there was a problem
-            // when we passing out a timestamp data. In chart library was provided
-            // a workaround for this problem, but it was a much dirtier than setting
-            // a string labels as I did.
-            entries.add(new Entry(index, historicalPrice));
-            xLabels.add(Utility.formatDate(historicalQuote.getDate(), DateFormat.SHORT));
-        }
-
-        // Show labels on x axis.
-        xAxis.setValueFormatter(new IAxisValueFormatter() {
-            @Override
-            public String getFormattedValue(float value, AxisBase axis) {
-                // A date on the right edge of X axis is little bit clipped.
-                // It is known bug of the chart library :( Solution for this problem was supposed
-                // to be a setting setAvoidFirstLastClipping for X axis...
-                // and it solves a problem... partially.
-                // Left label is now fine but label on right side is still clipped.
-                return xLabels.get((int) value);
-            }
-        });
-
         // Create marker on the chart.
         // This marker will pass an index of selected point on the graph
         // to activity, so we are able to show selected data on RecyclerView.
         DetailsMarkerView markerView = new DetailsMarkerView(this, this);
         chart.setMarker(markerView);
-
-        LineDataSet dataSet = new LineDataSet(entries, null);
-        dataSet.setColors(new int[]{R.color.material_blue_500}, this);
-        dataSet.setDrawCircles(false);
-        dataSet.setDrawFilled(true);
-        dataSet.setFillDrawable(ContextCompat.getDrawable(this, R.drawable.chart_gradient));
-        return new LineData(dataSet);
     }
 
     /**
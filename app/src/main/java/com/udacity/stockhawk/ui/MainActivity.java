@@ -9,6 +9,7 @@ import android.database.Cursor;
 import android.net.Uri;
 import android.os.Bundle;
 import android.preference.PreferenceManager;
+import android.support.design.widget.Snackbar;
 import android.support.v4.app.ActivityCompat;
 import android.support.v4.app.ActivityOptionsCompat;
 import android.support.v4.app.LoaderManager;
@@ -56,6 +57,11 @@ public class MainActivity extends AppCompatActivity implements LoaderManager.Loa
      */
     private static final int STOCK_LOADER = 1256;
 
+    /**
+     * Minimum time in milliseconds between two reloads of the list.
+     */
+    private static final long LIST_UPDATE_THROTTLE = 1000;
+
     /**
      * RecyclerView adapter.
      */
@@ -92,6 +98,9 @@ public class MainActivity extends AppCompatActivity implements LoaderManager.Loa
             // If data is invalid, show information in Toast.
             String message = getString(R.string.error_stock_symbol_invalid, symbol);
             Toast.makeText(MainActivity.this, message, Toast.LENGTH_SHORT).show();
+
+            // Synchronization of the added stock has finished, but there is nothing to show.
+            swipeRefreshLayout.setRefreshing(false);
         }
     };
 
@@ -201,15 +210,33 @@ public class MainActivity extends AppCompatActivity implements LoaderManager.Loa
         // We good to go... start syncing.
         hideError();
         swipeRefreshLayout.setRefreshing(true);
-        QuoteSyncJob.syncImmediately(this);
+        if (!QuoteSyncJob.syncImmediately(this)) {
+            swipeRefreshLayout.setRefreshing(false);
+        }
     }
 
     public void button(@SuppressWarnings("UnusedParameters") View view) {
         new AddStockDialog().show(getFragmentManager(), "StockDialogFragment");
     }
 
-    void addStock(String symbol) {
+    void addStock(final String symbol) {
         if (symbol != null && !symbol.isEmpty()) {
+            // There is no need to ask the API again about a symbol it has just rejected,
+            // unless user insists (e.g. symbol has been listed a moment ago).
+            if (PrefUtils.isStockInvalid(this, symbol)) {
+                String message = getString(R.string.error_stock_symbol_invalid, symbol);
+                Snackbar.make(swipeRefreshLayout, message, Snackbar.LENGTH_LONG)
+                        .setAction(R.string.action_add_stock_anyway, new View.OnClickListener() {
+                            @Override
+                            public void onClick(View view) {
+                                PrefUtils.clearStockInvalid(MainActivity.this, symbol);
+                                addStock(symbol);
+                            }
+                        })
+                        .show();
+                return;
+            }
+
             if (Utility.isNetworkAvailable(this)) {
                 swipeRefreshLayout.setRefreshing(true);
             } else {
@@ -218,16 +245,21 @@ public class MainActivity extends AppCompatActivity implements LoaderManager.Loa
             }
 
             PrefUtils.addStock(this, symbol);
-            QuoteSyncJob.syncImmediately(this);
+            QuoteSyncJob.syncStock(this, symbol);
         }
     }
 
     @Override
     public Loader<Cursor> onCreateLoader(int id, Bundle args) {
-        return new CursorLoader(this,
+        CursorLoader loader = new CursorLoader(this,
                 Contract.Quote.URI,
                 Contract.Quote.QUOTE_COLUMNS.toArray(new String[]{}),
                 null, null, Contract.Quote.COLUMN_SYMBOL);
+
+        // Synchronization notifies about every changed stock separately,
+        // so the whole list is reloaded at most once per throttle period.
+        loader.setUpdateThrottle(LIST_UPDATE_THROTTLE);
+        return loader;
     }
 
     @Override
@@ -335,6 +367,11 @@ public class MainActivity extends AppCompatActivity implements LoaderManager.Loa
             if (PrefUtils.getStocks(MainActivity.this).size() == 0) {
                 showError(getString(R.string.error_no_stocks));
             }
+        } else if (key.equals(getString(R.string.pref_last_sync_time_key))) {
+            // Synchronization has finished. When none of the quotes has changed,
+            // loader is not restarted, so we need to stop refreshing here.
+            swipeRefreshLayout.setRefreshing(false);
+            manageLastSynchronizationInfo();
         }
     }
 }
@@ -10,21 +10,22 @@ import android.widget.TextView;
 
 import com.udacity.stockhawk.R;
 import com.udacity.stockhawk.Utility;
+import com.udacity.stockhawk.data.PriceSeries;
 
-import java.util.ArrayList;
 import java.util.Calendar;
 
 import butterknife.BindView;
 import butterknife.ButterKnife;
-import yahoofinance.histquotes.HistoricalQuote;
 
 /**
  * Adapter which contains historical quotes for selected stock symbol.
+ * Series is ordered from the oldest quote, but list shows the newest quote at the top.
  */
 class QuoteHistoryAdapter extends
         RecyclerView.Adapter<QuoteHistoryAdapter.QuoteHistoryViewHolder> {
 
-    private ArrayList<HistoricalQuote> mData;
+    private PriceSeries mData = PriceSeries.empty();
+    private final Calendar mQuoteDate = Calendar.getInstance();
     private int mSelectedPosition = AbsListView.INVALID_POSITION;
 
     @Override
@@ -39,18 +40,18 @@ class QuoteHistoryAdapter extends
     @Override
     public void onBindViewHolder(QuoteHistoryAdapter.QuoteHistoryViewHolder holder, int position) {
         // Get data
-        HistoricalQuote quote = mData.get(position);
+        int index = mData.size() - position - 1;
 
         // Stock quotes history are given for week number which points to first day of the week.
         // To avoid any confusion we need to set the date to friday...
         // it is a real end of the week.
-        Calendar quoteDate = quote.getDate();
-        while (quoteDate.get(Calendar.DAY_OF_WEEK) != Calendar.FRIDAY) {
-            quoteDate.add(Calendar.DATE, 1);
+        mQuoteDate.setTimeInMillis(mData.getTimestamp(index));
+        while (mQuoteDate.get(Calendar.DAY_OF_WEEK) != Calendar.FRIDAY) {
+            mQuoteDate.add(Calendar.DATE, 1);
         }
 
-        String formattedDate = Utility.formatDate(quote.getDate());
-        String formattedPrice = Utility.formatPrice(quote.getClose().floatValue());
+        String formattedDate = Utility.formatDate(mQuoteDate);
+        String formattedPrice = Utility.formatPrice(mData.getClose(index));
 
         // Bind data to the view
         holder.mQuoteDate.setText(formattedDate);
@@ -66,11 +67,11 @@ class QuoteHistoryAdapter extends
 
     @Override
     public int getItemCount() {
-        return mData == null ? 0 : mData.size();
+        return mData.size();
     }
 
-    public void setData(ArrayList<HistoricalQuote> data) {
-        mData = data;
+    public void setData(PriceSeries data) {
+        mData = data == null ? PriceSeries.empty() : data;
         notifyDataSetChanged();
     }
 
@@ -3,7 +3,10 @@ package com.udacity.stockhawk.ui;
 
 import android.content.Context;
 import android.database.Cursor;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.v4.view.ViewCompat;
+import android.support.v7.util.DiffUtil;
 import android.support.v7.widget.RecyclerView;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -15,29 +18,90 @@ import com.udacity.stockhawk.Utility;
 import com.udacity.stockhawk.data.Contract;
 import com.udacity.stockhawk.data.PrefUtils;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
 import butterknife.BindView;
 import butterknife.ButterKnife;
 
 class StockAdapter extends RecyclerView.Adapter<StockAdapter.StockViewHolder> {
 
+    /**
+     * Payload of the change, when only values of the quote has changed.
+     */
+    private static final Object PAYLOAD_VALUES = new Object();
+
+    /**
+     * Executor on which differences between old and new list are calculated.
+     */
+    private static final Executor DIFF_EXECUTOR = Executors.newSingleThreadExecutor();
+
     private final Context context;
-    private Cursor cursor;
     private final StockAdapterOnClickHandler clickHandler;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Immutable snapshot of the rows which are currently shown.
+     */
+    private List<StockRow> rows = Collections.emptyList();
+
+    /**
+     * Number of the last requested update. It lets us drop outdated differences.
+     */
+    private int generation;
 
     StockAdapter(Context context, StockAdapterOnClickHandler clickHandler) {
         this.context = context;
         this.clickHandler = clickHandler;
     }
 
+    /**
+     * Update rows of the adapter with a data from the cursor.
+     * <p>
+     * Instead of rebinding every row, differences between the old and the new rows are
+     * calculated on the background thread and only changed rows are updated.
+     *
+     * @param cursor with the quotes
+     */
     void setCursor(Cursor cursor) {
-        this.cursor = cursor;
-        notifyDataSetChanged();
+        final List<StockRow> newRows = StockRow.fromCursor(cursor);
+        final List<StockRow> oldRows = rows;
+        final int updateGeneration = ++generation;
+
+        // There is nothing to compare, so we can show data right away.
+        if (oldRows.isEmpty() || newRows.isEmpty()) {
+            rows = newRows;
+            notifyDataSetChanged();
+            return;
+        }
+
+        DIFF_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                final DiffUtil.DiffResult diff =
+                        DiffUtil.calculateDiff(new StockRowDiff(oldRows, newRows), false);
+
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        // Newer data has arrived in the meantime.
+                        if (updateGeneration != generation) {
+                            return;
+                        }
+
+                        rows = newRows;
+                        diff.dispatchUpdatesTo(StockAdapter.this);
+                    }
+                });
+            }
+        });
     }
 
     String getSymbolAtPosition(int position) {
-
-        cursor.moveToPosition(position);
-        return cursor.getString(Contract.Quote.POSITION_SYMBOL);
+        return rows.get(position).symbol;
     }
 
     @Override
@@ -50,31 +114,55 @@ class StockAdapter extends RecyclerView.Adapter<StockAdapter.StockViewHolder> {
 
     @Override
     public void onBindViewHolder(StockViewHolder holder, int position) {
-        cursor.moveToPosition(position);
+        StockRow row = rows.get(position);
 
-        String symbol = cursor.getString(Contract.Quote.POSITION_SYMBOL);
-        String symbolDescription = context.getString(R.string.symbol_content_description, symbol);
-        String price = Utility.formatPrice(cursor.getFloat(Contract.Quote.POSITION_PRICE));
-        String priceDescription = context.getString(R.string.price_content_description, price);
+        String symbolDescription =
+                context.getString(R.string.symbol_content_description, row.symbol);
 
-        holder.symbol.setText(symbol);
+        holder.symbol.setText(row.symbol);
         holder.symbol.setContentDescription(symbolDescription);
+
+        bindValues(holder, row);
+
+        // Shared item animation. Name is based on the symbol, because position of the row
+        // can change without rebinding it.
+        ViewCompat.setTransitionName(holder.price, "priceView" + row.symbol);
+    }
+
+    @Override
+    public void onBindViewHolder(StockViewHolder holder, int position, List<Object> payloads) {
+        // Only values of the quote has changed, so symbol can stay untouched.
+        if (payloads.contains(PAYLOAD_VALUES)) {
+            bindValues(holder, rows.get(position));
+            return;
+        }
+
+        super.onBindViewHolder(holder, position, payloads);
+    }
+
+    /**
+     * Bind price and its change to the view.
+     *
+     * @param holder of the view
+     * @param row    with the data
+     */
+    private void bindValues(StockViewHolder holder, StockRow row) {
+        String price = Utility.formatPrice(row.price);
+        String priceDescription = context.getString(R.string.price_content_description, price);
+
         holder.price.setText(price);
         holder.price.setContentDescription(priceDescription);
 
-        float rawAbsoluteChange = cursor.getFloat(Contract.Quote.POSITION_ABSOLUTE_CHANGE);
-        float percentageChange = cursor.getFloat(Contract.Quote.POSITION_PERCENTAGE_CHANGE);
-
-        if (rawAbsoluteChange > 0) {
+        if (row.absoluteChange > 0) {
             holder.change.setBackgroundResource(R.drawable.percent_change_pill_green);
         } else {
             holder.change.setBackgroundResource(R.drawable.percent_change_pill_red);
         }
 
-        String change = Utility.formatPercentageChange(percentageChange);
+        String change = Utility.formatPercentageChange(row.percentageChange);
         if (PrefUtils.getDisplayMode(context)
                 .equals(context.getString(R.string.pref_display_mode_absolute_key))) {
-            change = Utility.formatAbsoluteChange(rawAbsoluteChange);
+            change = Utility.formatAbsoluteChange(row.absoluteChange);
         }
 
         String changeDescription =
@@ -82,17 +170,11 @@ class StockAdapter extends RecyclerView.Adapter<StockAdapter.StockViewHolder> {
 
         holder.change.setText(change);
         holder.change.setContentDescription(changeDescription);
-        // Shared item animation
-        ViewCompat.setTransitionName(holder.price, "priceView" + position);
     }
 
     @Override
     public int getItemCount() {
-        int count = 0;
-        if (cursor != null) {
-            count = cursor.getCount();
-        }
-        return count;
+        return rows.size();
     }
 
 
@@ -100,6 +182,84 @@ class StockAdapter extends RecyclerView.Adapter<StockAdapter.StockViewHolder> {
         void onClick(String symbol, StockViewHolder viewHolder);
     }
 
+    /**
+     * Values of the single row of the list.
+     */
+    private static class StockRow {
+
+        final String symbol;
+        final float price;
+        final float absoluteChange;
+        final float percentageChange;
+
+        StockRow(Cursor cursor) {
+            symbol = cursor.getString(Contract.Quote.POSITION_SYMBOL);
+            price = cursor.getFloat(Contract.Quote.POSITION_PRICE);
+            absoluteChange = cursor.getFloat(Contract.Quote.POSITION_ABSOLUTE_CHANGE);
+            percentageChange = cursor.getFloat(Contract.Quote.POSITION_PERCENTAGE_CHANGE);
+        }
+
+        static List<StockRow> fromCursor(Cursor cursor) {
+            if (cursor == null || cursor.getCount() == 0) {
+                return Collections.emptyList();
+            }
+
+            List<StockRow> rows = new ArrayList<>(cursor.getCount());
+            cursor.moveToPosition(-1);
+            while (cursor.moveToNext()) {
+                rows.add(new StockRow(cursor));
+            }
+
+            return Collections.unmodifiableList(rows);
+        }
+
+        boolean hasSameValues(StockRow other) {
+            return Float.compare(price, other.price) == 0
+                    && Float.compare(absoluteChange, other.absoluteChange) == 0
+                    && Float.compare(percentageChange, other.percentageChange) == 0;
+        }
+    }
+
+    /**
+     * Differences between two lists of rows. Rows are identified by the stock symbol.
+     */
+    private static class StockRowDiff extends DiffUtil.Callback {
+
+        private final List<StockRow> oldRows;
+        private final List<StockRow> newRows;
+
+        StockRowDiff(List<StockRow> oldRows, List<StockRow> newRows) {
+            this.oldRows = oldRows;
+            this.newRows = newRows;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldRows.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newRows.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            return oldRows.get(oldItemPosition).symbol
+                    .equals(newRows.get(newItemPosition).symbol);
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            return oldRows.get(oldItemPosition).hasSameValues(newRows.get(newItemPosition));
+        }
+
+        @Override
+        public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+            return PAYLOAD_VALUES;
+        }
+    }
+
     class StockViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener {
 
         @BindView(R.id.symbol)
@@ -120,9 +280,11 @@ class StockAdapter extends RecyclerView.Adapter<StockAdapter.StockViewHolder> {
         @Override
         public void onClick(View v) {
             int adapterPosition = getAdapterPosition();
-            cursor.moveToPosition(adapterPosition);
-            int symbolColumn = cursor.getColumnIndex(Contract.Quote.COLUMN_SYMBOL);
-            clickHandler.onClick(cursor.getString(symbolColumn), this);
+            if (adapterPosition == RecyclerView.NO_POSITION) {
+                return;
+            }
+
+            clickHandler.onClick(rows.get(adapterPosition).symbol, this);
         }
     }
 }
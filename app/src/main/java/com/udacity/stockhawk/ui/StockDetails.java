@@ -0,0 +1,74 @@
+package com.udacity.stockhawk.ui;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.support.v4.content.ContextCompat;
+
+import com.github.mikephil.charting.data.LineData;
+import com.github.mikephil.charting.data.LineDataSet;
+import com.udacity.stockhawk.R;
+import com.udacity.stockhawk.Utility;
+import com.udacity.stockhawk.data.Contract;
+import com.udacity.stockhawk.data.PriceSeries;
+import com.udacity.stockhawk.ui.chart.PriceSeriesChartAdapter;
+
+/**
+ * Everything what details screen needs to show a selected stock quote.
+ * <p>
+ * It is prepared by {@link StockDetailsLoader} on the background thread (formatted values,
+ * history series and data of the chart), so the main thread only binds it to the views.
+ */
+class StockDetails {
+
+    final String symbol;
+    final int valueColor;
+    final String price;
+    final String priceDescription;
+    final String absoluteChange;
+    final String absoluteChangeDescription;
+    final String percentageChange;
+    final String percentageChangeDescription;
+    final PriceSeries history;
+    final LineData chartData;
+    final PriceSeriesChartAdapter chartAdapter;
+
+    /**
+     * Prepare details of the stock quote.
+     *
+     * @param context of the application
+     * @param quote   cursor pointing to the quote, with {@link Contract.Quote#QUOTE_COLUMNS}
+     * @param history of the quote ordered from the oldest to the most recent quote
+     */
+    StockDetails(Context context, Cursor quote, PriceSeries history) {
+        float rawPrice = quote.getFloat(Contract.Quote.POSITION_PRICE);
+        float rawAbsoluteChange = quote.getFloat(Contract.Quote.POSITION_ABSOLUTE_CHANGE);
+        float rawPercentageChange = quote.getFloat(Contract.Quote.POSITION_PERCENTAGE_CHANGE);
+
+        symbol = quote.getString(Contract.Quote.POSITION_SYMBOL);
+
+        // Change color of price whether current quote show profit or loss.
+        valueColor = Utility.determineColor(context, rawAbsoluteChange);
+
+        price = Utility.formatPrice(rawPrice);
+        priceDescription = context.getString(R.string.price_content_description, price);
+        absoluteChange = Utility.formatAbsoluteChange(rawAbsoluteChange);
+        absoluteChangeDescription = context.getString(
+                R.string.absolute_price_change_content_description, absoluteChange);
+        percentageChange = Utility.formatPercentageChange(rawPercentageChange);
+        percentageChangeDescription = context.getString(
+                R.string.percentage_price_change_content_description, percentageChange);
+
+        this.history = history;
+
+        // Prepare chart data and labels.
+        chartAdapter = new PriceSeriesChartAdapter(history);
+        chartAdapter.prepareLabels();
+
+        LineDataSet dataSet = new LineDataSet(chartAdapter.getEntries(), null);
+        dataSet.setColors(new int[]{R.color.material_blue_500}, context);
+        dataSet.setDrawCircles(false);
+        dataSet.setDrawFilled(true);
+        dataSet.setFillDrawable(ContextCompat.getDrawable(context, R.drawable.chart_gradient));
+        chartData = new LineData(dataSet);
+    }
+}
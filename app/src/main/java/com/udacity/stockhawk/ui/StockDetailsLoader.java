@@ -0,0 +1,121 @@
+package com.udacity.stockhawk.ui;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+import android.support.v4.content.AsyncTaskLoader;
+
+import com.udacity.stockhawk.data.Contract;
+import com.udacity.stockhawk.data.PriceSeries;
+
+/**
+ * Loader which prepares details of the selected stock quote on the background thread.
+ * <p>
+ * Quote and its history are queried, parsed and turned into the chart data off the main
+ * thread. Loader observes the stock URI and the stock history URI, and reloads details
+ * whenever they have changed. Changes of the other stocks are not observed.
+ */
+class StockDetailsLoader extends AsyncTaskLoader<StockDetails> {
+
+    private final Uri mStockUri;
+    private final Uri mHistoryUri;
+    private final ForceLoadContentObserver mObserver = new ForceLoadContentObserver();
+    private boolean mObserving;
+    private StockDetails mDetails;
+
+    StockDetailsLoader(Context context, Uri stockUri) {
+        super(context);
+        mStockUri = stockUri;
+        mHistoryUri = Contract.History.makeUriForStock(stockUri.getLastPathSegment());
+    }
+
+    /**
+     * Load details of the stock quote.
+     *
+     * @return details of the stock or null when stock is not available
+     */
+    @Override
+    public StockDetails loadInBackground() {
+        ContentResolver resolver = getContext().getContentResolver();
+        Cursor quote = resolver.query(
+                mStockUri,
+                Contract.Quote.QUOTE_COLUMNS.toArray(new String[]{}),
+                null, null, null);
+
+        if (quote == null) {
+            return null;
+        }
+
+        try {
+            if (!quote.moveToFirst()) {
+                return null;
+            }
+
+            PriceSeries history = PriceSeries.empty();
+            Cursor historyCursor = resolver.query(
+                    mHistoryUri,
+                    Contract.History.HISTORY_COLUMNS.toArray(new String[]{}),
+                    null, null, Contract.History.COLUMN_DATE + " ASC");
+
+            if (historyCursor != null) {
+                try {
+                    history = PriceSeries.fromCursor(historyCursor);
+                } finally {
+                    historyCursor.close();
+                }
+            }
+
+            return new StockDetails(getContext(), quote, history);
+        } finally {
+            quote.close();
+        }
+    }
+
+    @Override
+    public void deliverResult(StockDetails details) {
+        if (isReset()) {
+            return;
+        }
+
+        mDetails = details;
+        if (isStarted()) {
+            super.deliverResult(details);
+        }
+    }
+
+    @Override
+    protected void onStartLoading() {
+        if (!mObserving) {
+            ContentResolver resolver = getContext().getContentResolver();
+            resolver.registerContentObserver(mStockUri, false, mObserver);
+            resolver.registerContentObserver(mHistoryUri, false, mObserver);
+            mObserving = true;
+        }
+
+        if (mDetails != null) {
+            deliverResult(mDetails);
+        }
+
+        if (takeContentChanged() || mDetails == null) {
+            forceLoad();
+        }
+    }
+
+    @Override
+    protected void onStopLoading() {
+        cancelLoad();
+    }
+
+    @Override
+    protected void onReset() {
+        super.onReset();
+        onStopLoading();
+
+        if (mObserving) {
+            getContext().getContentResolver().unregisterContentObserver(mObserver);
+            mObserving = false;
+        }
+        mDetails = null;
+    }
+}
@@ -0,0 +1,75 @@
+package com.udacity.stockhawk.ui.chart;
+
+import com.github.mikephil.charting.components.AxisBase;
+import com.github.mikephil.charting.data.Entry;
+import com.github.mikephil.charting.formatter.IAxisValueFormatter;
+import com.udacity.stockhawk.Utility;
+import com.udacity.stockhawk.data.PriceSeries;
+
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Adapter which exposes a price series to the line chart.
+ * <p>
+ * X value of the chart entry is an index of the quote in the series. As the chart
+ * is able to show only a few labels on the X axis, dates of the quotes are formatted
+ * only when chart asks for them (and then they are cached).
+ */
+public class PriceSeriesChartAdapter implements IAxisValueFormatter {
+
+    private final PriceSeries mSeries;
+    private final String[] mLabels;
+    private final Calendar mCalendar = Calendar.getInstance();
+
+    public PriceSeriesChartAdapter(PriceSeries series) {
+        mSeries = series;
+        mLabels = new String[series.size()];
+    }
+
+    /**
+     * Build chart entries from the series.
+     *
+     * @return list of the chart entries, one for each quote of the series
+     */
+    public List<Entry> getEntries() {
+        List<Entry> entries = new ArrayList<>(mSeries.size());
+        for (int index = 0; index < mSeries.size(); index++) {
+            entries.add(new Entry(index, mSeries.getClose(index)));
+        }
+
+        return entries;
+    }
+
+    /**
+     * Format labels of all quotes at once.
+     * This is useful when adapter is prepared on the background thread, so chart drawn
+     * on the main thread will only pick already formatted labels.
+     */
+    public void prepareLabels() {
+        for (int index = 0; index < mLabels.length; index++) {
+            formatLabel(index);
+        }
+    }
+
+    @Override
+    public String getFormattedValue(float value, AxisBase axis) {
+        int index = (int) value;
+        if (index < 0 || index >= mLabels.length) {
+            return "";
+        }
+
+        return formatLabel(index);
+    }
+
+    private String formatLabel(int index) {
+        if (mLabels[index] == null) {
+            mCalendar.setTimeInMillis(mSeries.getTimestamp(index));
+            mLabels[index] = Utility.formatDate(mCalendar, DateFormat.SHORT);
+        }
+
+        return mLabels[index];
+    }
+}
@@ -0,0 +1,128 @@
+package com.udacity.stockhawk;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class QuoteFormatTest {
+
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 20000;
+
+    private static final TimeZone TIME_ZONE = TimeZone.getTimeZone("America/New_York");
+    private static final String DATE_PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    private static final float[] VALUES = {
+            0f, 143.66f, 0.01f, 1.2f, -1.25f, 824.67f, 1234567.89f, 0.0077f, -0.013f, -0.5f
+    };
+
+    private static final long[] TIMESTAMPS = {
+            0L, 1491177600000L, 1491238800000L, 1500000000000L, 1600000000000L
+    };
+
+    private Locale mDefaultLocale;
+
+    @Before
+    public void setUp() {
+        mDefaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.US);
+    }
+
+    @After
+    public void tearDown() {
+        Locale.setDefault(mDefaultLocale);
+    }
+
+    @Test
+    public void formatsValues() {
+        assertEquals("$0.00", QuoteFormat.formatPrice(0));
+        assertEquals("$143.66", QuoteFormat.formatPrice(143.66f));
+        assertEquals("$1,234,567.88", QuoteFormat.formatPrice(1234567.89f));
+        assertEquals("+$1.20", QuoteFormat.formatAbsoluteChange(1.2f));
+        assertEquals("+0.77%", QuoteFormat.formatPercentageChange(0.0077f));
+        assertEquals("-1.30%", QuoteFormat.formatPercentageChange(-0.013f));
+        assertEquals("0.00%", QuoteFormat.formatPercentageChange(0));
+        assertEquals("2017-04-03 00:00:00",
+                QuoteFormat.formatDate(1491192000000L, TIME_ZONE, DATE_PATTERN));
+    }
+
+    @Test
+    public void formatsSameValuesInParallel() throws Exception {
+        // Expected strings are formatted by a single thread.
+        final String[][] expected = new String[VALUES.length][];
+        for (int i = 0; i < VALUES.length; i++) {
+            expected[i] = formatValue(VALUES[i]);
+        }
+        final String[][] expectedDates = new String[TIMESTAMPS.length][];
+        for (int i = 0; i < TIMESTAMPS.length; i++) {
+            expectedDates[i] = formatTimestamp(TIMESTAMPS[i]);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                final long seed = thread;
+                results.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        Random random = new Random(seed);
+                        start.await();
+                        int checked = 0;
+                        for (int i = 0; i < ITERATIONS; i++) {
+                            if (random.nextBoolean()) {
+                                int index = random.nextInt(VALUES.length);
+                                assertArrayEquals(expected[index], formatValue(VALUES[index]));
+                            } else {
+                                int index = random.nextInt(TIMESTAMPS.length);
+                                assertArrayEquals(expectedDates[index],
+                                        formatTimestamp(TIMESTAMPS[index]));
+                            }
+                            checked++;
+                        }
+                        return checked;
+                    }
+                }));
+            }
+
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals(ITERATIONS, (int) result.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String[] formatValue(float value) {
+        return new String[]{
+                QuoteFormat.formatPrice(value),
+                QuoteFormat.formatAbsoluteChange(value),
+                QuoteFormat.formatPercentageChange(value)
+        };
+    }
+
+    private static String[] formatTimestamp(long timestamp) {
+        return new String[]{
+                QuoteFormat.formatDate(timestamp, TIME_ZONE, DateFormat.SHORT),
+                QuoteFormat.formatDate(timestamp, TIME_ZONE, DATE_PATTERN)
+        };
+    }
+}
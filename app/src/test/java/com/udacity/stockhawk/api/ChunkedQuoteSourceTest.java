@@ -0,0 +1,84 @@
+package com.udacity.stockhawk.api;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import yahoofinance.histquotes.HistoricalQuote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ChunkedQuoteSourceTest {
+
+    private static final String[] SYMBOLS = {"A", "B", "C", "D", "E"};
+
+    private final FakeSource mSource = new FakeSource();
+
+    @Test
+    public void largeWatchlistIsSplitIntoChunks() throws IOException {
+        Map<String, Quote> quotes = new ChunkedQuoteSource(mSource, 2).getQuotes(SYMBOLS);
+
+        assertEquals(5, quotes.size());
+        assertEquals(3, mSource.requests.size());
+        for (String[] request : mSource.requests) {
+            assertTrue(request.length <= 2);
+        }
+    }
+
+    @Test
+    public void smallWatchlistIsSingleRequest() throws IOException {
+        Map<String, Quote> quotes = new ChunkedQuoteSource(mSource, 5).getQuotes(SYMBOLS);
+
+        assertEquals(5, quotes.size());
+        assertEquals(1, mSource.requests.size());
+    }
+
+    @Test
+    public void failedChunkFailsWholeRequest() {
+        mSource.failing = "D";
+
+        try {
+            new ChunkedQuoteSource(mSource, 2).getQuotes(SYMBOLS);
+            fail();
+        } catch (IOException exception) {
+            assertEquals("Failure of D", exception.getMessage());
+        }
+    }
+
+    /**
+     * Source which returns a quote for every symbol and records the requests.
+     */
+    private static class FakeSource implements QuoteSource {
+
+        final List<String[]> requests = Collections.synchronizedList(new ArrayList<String[]>());
+        volatile String failing;
+
+        @Override
+        public Map<String, Quote> getQuotes(String[] symbols) throws IOException {
+            requests.add(symbols);
+
+            Map<String, Quote> quotes = new HashMap<>();
+            for (String symbol : symbols) {
+                if (symbol.equals(failing)) {
+                    throw new IOException("Failure of " + symbol);
+                }
+                quotes.put(symbol, new Quote(symbol, 1f, 0.1f, 10f));
+            }
+
+            return quotes;
+        }
+
+        @Override
+        public List<HistoricalQuote> getHistory(String symbol, Calendar from, Calendar to) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.udacity.stockhawk.api;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CircuitBreakerTest {
+
+    private static final int THRESHOLD = 3;
+    private static final long OPEN_DURATION = 1000;
+
+    private CircuitBreaker mBreaker;
+
+    @Before
+    public void setUp() {
+        mBreaker = new CircuitBreaker(THRESHOLD, OPEN_DURATION);
+    }
+
+    @Test
+    public void opensAfterConsecutiveFailures() {
+        for (int i = 0; i < THRESHOLD - 1; i++) {
+            mBreaker.recordFailure(0);
+            assertTrue(mBreaker.allowRequest(0));
+        }
+
+        mBreaker.recordFailure(0);
+        assertFalse(mBreaker.allowRequest(0));
+        assertFalse(mBreaker.allowRequest(OPEN_DURATION - 1));
+    }
+
+    @Test
+    public void successResetsFailures() {
+        for (int i = 0; i < THRESHOLD - 1; i++) {
+            mBreaker.recordFailure(0);
+        }
+        mBreaker.recordSuccess();
+        mBreaker.recordFailure(0);
+
+        assertTrue(mBreaker.allowRequest(0));
+    }
+
+    @Test
+    public void allowsSingleTrialAfterOpenDuration() {
+        open(0);
+
+        assertTrue(mBreaker.allowRequest(OPEN_DURATION));
+        assertFalse(mBreaker.allowRequest(OPEN_DURATION));
+    }
+
+    @Test
+    public void successfulTrialClosesBreaker() {
+        open(0);
+        mBreaker.allowRequest(OPEN_DURATION);
+        mBreaker.recordSuccess();
+
+        assertTrue(mBreaker.allowRequest(OPEN_DURATION));
+        assertTrue(mBreaker.allowRequest(OPEN_DURATION));
+    }
+
+    @Test
+    public void failedTrialOpensBreakerAgain() {
+        open(0);
+        mBreaker.allowRequest(OPEN_DURATION);
+        mBreaker.recordFailure(OPEN_DURATION);
+
+        assertFalse(mBreaker.allowRequest(2 * OPEN_DURATION - 1));
+        assertTrue(mBreaker.allowRequest(2 * OPEN_DURATION));
+    }
+
+    @Test
+    public void skippedTrialAllowsAnotherOne() {
+        open(0);
+        mBreaker.allowRequest(OPEN_DURATION);
+        mBreaker.recordSkipped();
+
+        assertTrue(mBreaker.allowRequest(OPEN_DURATION));
+    }
+
+    @Test
+    public void skippedRequestIsNotFailure() {
+        for (int i = 0; i < THRESHOLD - 1; i++) {
+            mBreaker.recordFailure(0);
+        }
+        mBreaker.recordSkipped();
+
+        assertTrue(mBreaker.allowRequest(0));
+    }
+
+    private void open(long now) {
+        for (int i = 0; i < THRESHOLD; i++) {
+            mBreaker.recordFailure(now);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.udacity.stockhawk.api;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+import yahoofinance.histquotes.HistoricalQuote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class FinanceAPITest {
+
+    @Rule
+    public final MockWebServer mServer = new MockWebServer();
+
+    private final OkHttpClient mClient = new OkHttpClient.Builder()
+            .readTimeout(200, TimeUnit.MILLISECONDS)
+            .build();
+
+    @Test
+    public void requestsOnlyNeededFields() throws IOException, InterruptedException {
+        mServer.enqueue(new MockResponse().setBody("\"AAPL\",156.10,+1.20,\"+0.77%\"\n"));
+
+        Map<String, Quote> quotes = FinanceAPI.get(mClient, quotesUrl(), new String[]{"AAPL"});
+
+        assertEquals(1, quotes.size());
+        assertEquals(156.10f, quotes.get("AAPL").getPrice(), 0.0001f);
+        HttpUrl url = mServer.takeRequest().getRequestUrl();
+        assertEquals("AAPL", url.queryParameter("s"));
+        assertEquals(QuoteCsvParser.FIELDS, url.queryParameter("f"));
+    }
+
+    @Test
+    public void unsuccessfulResponseFails() {
+        mServer.enqueue(new MockResponse().setResponseCode(503));
+
+        try {
+            FinanceAPI.get(mClient, quotesUrl(), new String[]{"AAPL"});
+            fail();
+        } catch (IOException exception) {
+            assertEquals(1, mServer.getRequestCount());
+        }
+    }
+
+    @Test
+    public void requestWithoutResponseTimesOut() throws IOException {
+        mServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+
+        try {
+            FinanceAPI.get(mClient, quotesUrl(), new String[]{"AAPL"});
+            fail();
+        } catch (SocketTimeoutException exception) {
+            assertEquals(1, mServer.getRequestCount());
+        }
+    }
+
+    @Test
+    public void timedOutRequestIsRetried() throws IOException {
+        mServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        mServer.enqueue(new MockResponse().setBody("\"AAPL\",156.10,+1.20,\"+0.77%\"\n"));
+
+        Map<String, Quote> quotes = new Retry(3, 1, 4).call(new Callable<Map<String, Quote>>() {
+            @Override
+            public Map<String, Quote> call() throws IOException {
+                return FinanceAPI.get(mClient, quotesUrl(), new String[]{"AAPL"});
+            }
+        });
+
+        assertEquals(1, quotes.size());
+        assertEquals(2, mServer.getRequestCount());
+    }
+
+    @Test
+    public void parsesWeeklyHistory() throws IOException, InterruptedException {
+        mServer.enqueue(new MockResponse().setBody("Date,Open,High,Low,Close,Volume,Adj Close\n"
+                + "2017-04-03,143.71,144.89,143.17,143.66,1000,143.66\n"
+                + "invalid line\n"
+                + "2017-03-27,140.91,144.50,140.62,143.66,2000,143.66\n"));
+        Calendar from = Calendar.getInstance();
+        from.clear();
+        from.set(2017, Calendar.MARCH, 27);
+        Calendar to = Calendar.getInstance();
+        to.clear();
+        to.set(2017, Calendar.APRIL, 9);
+
+        List<HistoricalQuote> history = FinanceAPI.getHistory(
+                mClient, mServer.url("/table.csv"), "AAPL", from, to);
+
+        assertEquals(2, history.size());
+        assertEquals(143.66, history.get(0).getClose().doubleValue(), 0.0001);
+        assertEquals(1000L, history.get(0).getVolume().longValue());
+        HttpUrl url = mServer.takeRequest().getRequestUrl();
+        assertEquals("2", url.queryParameter("a"));
+        assertEquals("27", url.queryParameter("b"));
+        assertEquals("2017", url.queryParameter("c"));
+        assertEquals("3", url.queryParameter("d"));
+        assertEquals("9", url.queryParameter("e"));
+        assertEquals("2017", url.queryParameter("f"));
+        assertEquals("w", url.queryParameter("g"));
+    }
+
+    private HttpUrl quotesUrl() {
+        return mServer.url("/d/quotes.csv");
+    }
+}
@@ -0,0 +1,128 @@
+package com.udacity.stockhawk.api;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+
+public class HistoryCacheInterceptorTest {
+
+    private static final String HISTORY_PATH = "/table.csv";
+
+    @Rule
+    public final MockWebServer mServer = new MockWebServer();
+
+    @Rule
+    public final TemporaryFolder mCacheDirectory = new TemporaryFolder();
+
+    private Cache mCache;
+    private OkHttpClient mClient;
+
+    @Before
+    public void setUp() {
+        mCache = new Cache(mCacheDirectory.getRoot(), 1024 * 1024);
+        mClient = new OkHttpClient.Builder()
+                .cache(mCache)
+                .addNetworkInterceptor(new HistoryCacheInterceptor(
+                        mServer.url(HISTORY_PATH).toString()))
+                .build();
+    }
+
+    @Test
+    public void completedWeeksAreServedFromCache() throws IOException {
+        Calendar end = Calendar.getInstance();
+        end.add(Calendar.DAY_OF_MONTH, -14);
+
+        assertEquals("history", fetch(historyUrl(end)));
+        assertEquals("history", fetch(historyUrl(end)));
+
+        assertEquals(1, mServer.getRequestCount());
+        assertEquals(1, mCache.hitCount());
+    }
+
+    @Test
+    public void rangeIncludingCurrentWeekIsAlwaysDownloaded() throws IOException {
+        Calendar end = Calendar.getInstance();
+        end.add(Calendar.DAY_OF_MONTH, 7);
+
+        fetch(historyUrl(end));
+        fetch(historyUrl(end));
+
+        assertEquals(2, mServer.getRequestCount());
+        assertEquals(0, mCache.hitCount());
+    }
+
+    @Test
+    public void otherRequestsAreNotCached() throws IOException {
+        HttpUrl url = mServer.url("/d/quotes.csv?s=AAPL");
+
+        fetch(url);
+        fetch(url);
+
+        assertEquals(2, mServer.getRequestCount());
+    }
+
+    @Test
+    public void failedResponseIsNotCached() throws IOException {
+        Calendar end = Calendar.getInstance();
+        end.add(Calendar.DAY_OF_MONTH, -14);
+        mServer.enqueue(new MockResponse().setResponseCode(503));
+
+        fetch(historyUrl(end));
+        assertEquals("history", fetch(historyUrl(end)));
+
+        assertEquals(2, mServer.getRequestCount());
+    }
+
+    @Test
+    public void responseIsFreshUntilNextWeek() {
+        Calendar now = Calendar.getInstance(TimeZone.getTimeZone("America/New_York"), Locale.US);
+        now.clear();
+        now.set(2017, Calendar.APRIL, 12, 12, 0);
+
+        // From Wednesday noon to Monday midnight.
+        assertEquals(TimeUnit.HOURS.toSeconds(4 * 24 + 12),
+                HistoryCacheInterceptor.getSecondsToNextWeek(now));
+    }
+
+    private String fetch(HttpUrl url) throws IOException {
+        // Response is enqueued also for the request which should be served from the cache.
+        mServer.enqueue(new MockResponse().setBody("history"));
+
+        Response response = mClient.newCall(new Request.Builder().url(url).build()).execute();
+        try {
+            return response.body().string();
+        } finally {
+            response.close();
+        }
+    }
+
+    private HttpUrl historyUrl(Calendar end) {
+        return mServer.url(HISTORY_PATH).newBuilder()
+                .addQueryParameter("s", "AAPL")
+                .addQueryParameter("a", "0")
+                .addQueryParameter("b", "1")
+                .addQueryParameter("c", "2015")
+                .addQueryParameter("d", String.valueOf(end.get(Calendar.MONTH)))
+                .addQueryParameter("e", String.valueOf(end.get(Calendar.DAY_OF_MONTH)))
+                .addQueryParameter("f", String.valueOf(end.get(Calendar.YEAR)))
+                .addQueryParameter("g", "w")
+                .build();
+    }
+}
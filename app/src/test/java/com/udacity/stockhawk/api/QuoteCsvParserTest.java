@@ -0,0 +1,94 @@
+package com.udacity.stockhawk.api;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class QuoteCsvParserTest {
+
+    private static final float DELTA = 0.0001f;
+
+    @Test
+    public void parsesQuotes() throws IOException {
+        Map<String, Quote> quotes = parse("\"AAPL\",156.10,+1.20,\"+0.77%\"\n"
+                + "\"MSFT\",65.5,-0.86,\"-1.30%\"\n");
+
+        assertEquals(2, quotes.size());
+        assertQuote(quotes.get("AAPL"), "AAPL", 156.10f, 1.20f, 0.77f);
+        assertQuote(quotes.get("MSFT"), "MSFT", 65.5f, -0.86f, -1.30f);
+    }
+
+    @Test
+    public void parsesLastLineWithoutNewLine() throws IOException {
+        Map<String, Quote> quotes = parse("\"AAPL\",156.10,+1.20,\"+0.77%\"");
+
+        assertQuote(quotes.get("AAPL"), "AAPL", 156.10f, 1.20f, 0.77f);
+    }
+
+    @Test
+    public void skipsQuotesWithoutPrice() throws IOException {
+        Map<String, Quote> quotes = parse("\"XYZ\",N/A,N/A,\"N/A\"\n"
+                + "\"AAPL\",156.10,+1.20,\"+0.77%\"\n");
+
+        assertEquals(1, quotes.size());
+        assertTrue(quotes.containsKey("AAPL"));
+    }
+
+    @Test
+    public void skipsEmptyLines() throws IOException {
+        Map<String, Quote> quotes = parse("\r\n\"AAPL\",156.10,+1.20,\"+0.77%\"\r\n\r\n\n"
+                + "\"MSFT\",65.5,-0.86,\"-1.30%\"\r\n\n");
+
+        assertEquals(2, quotes.size());
+        assertQuote(quotes.get("MSFT"), "MSFT", 65.5f, -0.86f, -1.30f);
+    }
+
+    @Test
+    public void missingChangeIsZero() throws IOException {
+        Map<String, Quote> quotes = parse("\"NEW\",12.00,N/A,\"N/A\"\n"
+                + "\"OLD\",8.25\n");
+
+        assertQuote(quotes.get("NEW"), "NEW", 12f, 0f, 0f);
+        assertQuote(quotes.get("OLD"), "OLD", 8.25f, 0f, 0f);
+    }
+
+    @Test
+    public void skipsNonAsciiSymbols() throws IOException {
+        Map<String, Quote> quotes = parse("\"\u00c4PL\",156.10,+1.20,\"+0.77%\"\n"
+                + "\"MSFT\",65.5,-0.86,\"-1.30%\"\n");
+
+        assertEquals(1, quotes.size());
+        assertFalse(quotes.containsKey("\u00c4PL"));
+        assertFalse(quotes.containsKey("\u00c3\u0084PL"));
+        assertTrue(quotes.containsKey("MSFT"));
+    }
+
+    @Test
+    public void nonAsciiValueIsMissing() throws IOException {
+        Map<String, Quote> quotes = parse("\"AAPL\",156.10,+1.20\u20ac,\"+0.77%\"\n"
+                + "\"MSFT\",6\u20ac5.5,-0.86,\"-1.30%\"\n");
+
+        assertQuote(quotes.get("AAPL"), "AAPL", 156.10f, 0f, 0.77f);
+        assertFalse(quotes.containsKey("MSFT"));
+    }
+
+    private static Map<String, Quote> parse(String response) throws IOException {
+        byte[] bytes = response.getBytes(Charset.forName("UTF-8"));
+        return QuoteCsvParser.parse(new ByteArrayInputStream(bytes));
+    }
+
+    private static void assertQuote(Quote quote, String symbol, float price, float change,
+                                    float changeInPercent) {
+        assertEquals(symbol, quote.getSymbol());
+        assertEquals(price, quote.getPrice(), DELTA);
+        assertEquals(change, quote.getChange(), DELTA);
+        assertEquals(changeInPercent, quote.getChangeInPercent(), DELTA);
+    }
+}
@@ -0,0 +1,151 @@
+package com.udacity.stockhawk.api;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import yahoofinance.histquotes.HistoricalQuote;
+
+/**
+ * Quotes replayed from the recorded fixtures, without any network access.
+ * <p>
+ * Fixtures are plain text, one record per line, and lines starting with '#' are skipped:
+ * <ul>
+ * <li>quotes: {@code symbol,price,previousClose}</li>
+ * <li>history: {@code symbol,timestamp,close} (timestamp in milliseconds)</li>
+ * </ul>
+ * Every request can be delayed and can fail with the given probability. Failures are drawn
+ * from a seeded generator, so the same sequence of requests always fails the same way.
+ */
+public class ReplayQuoteSource implements QuoteSource {
+
+    private final Map<String, String[]> mQuotes = new HashMap<>();
+    private final Map<String, List<String[]>> mHistory = new HashMap<>();
+    private final long mLatency;
+    private final double mFailureRate;
+    private final Random mRandom;
+
+    /**
+     * @param quotes      fixture with the quotes
+     * @param history     fixture with the history
+     * @param latency     delay of every request in milliseconds
+     * @param failureRate probability (0 - 1) that a request fails with an {@link IOException}
+     * @param seed        of the failures generator
+     * @throws IOException when fixtures could not be read
+     */
+    public ReplayQuoteSource(Reader quotes, Reader history, long latency, double failureRate,
+                             long seed) throws IOException {
+        for (String[] record : readRecords(quotes)) {
+            mQuotes.put(record[0], record);
+        }
+
+        for (String[] record : readRecords(history)) {
+            List<String[]> records = mHistory.get(record[0]);
+            if (records == null) {
+                records = new ArrayList<>();
+                mHistory.put(record[0], records);
+            }
+            records.add(record);
+        }
+
+        mLatency = latency;
+        mFailureRate = failureRate;
+        mRandom = new Random(seed);
+    }
+
+    @Override
+    public Map<String, Quote> getQuotes(String[] symbols) throws IOException {
+        simulateRequest();
+
+        Map<String, Quote> result = new HashMap<>();
+        for (String symbol : symbols) {
+            String[] record = mQuotes.get(symbol);
+            if (record == null) {
+                continue;
+            }
+
+            float price = Float.parseFloat(record[1]);
+            float previousClose = Float.parseFloat(record[2]);
+            float change = price - previousClose;
+            float changeInPercent = previousClose == 0 ? 0 : change / previousClose * 100;
+            result.put(symbol, new Quote(symbol, price, change, changeInPercent));
+        }
+
+        return result;
+    }
+
+    @Override
+    public List<HistoricalQuote> getHistory(String symbol, Calendar from, Calendar to)
+            throws IOException {
+        simulateRequest();
+
+        List<String[]> records = mHistory.get(symbol);
+        if (records == null) {
+            return Collections.emptyList();
+        }
+
+        List<HistoricalQuote> result = new ArrayList<>();
+        for (String[] record : records) {
+            long timestamp = Long.parseLong(record[1]);
+            if (timestamp < from.getTimeInMillis() || timestamp > to.getTimeInMillis()) {
+                continue;
+            }
+
+            Calendar date = Calendar.getInstance();
+            date.setTimeInMillis(timestamp);
+            BigDecimal close = new BigDecimal(record[2]);
+            result.add(new HistoricalQuote(symbol, date, close, close, close, close, close, 0L));
+        }
+
+        return result;
+    }
+
+    private void simulateRequest() throws IOException {
+        if (mLatency > 0) {
+            try {
+                Thread.sleep(mLatency);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Request has been interrupted");
+            }
+        }
+
+        boolean failure;
+        synchronized (mRandom) {
+            failure = mRandom.nextDouble() < mFailureRate;
+        }
+
+        if (failure) {
+            throw new IOException("Injected failure");
+        }
+    }
+
+    private static List<String[]> readRecords(Reader reader) throws IOException {
+        List<String[]> records = new ArrayList<>();
+        BufferedReader lines = new BufferedReader(reader);
+        try {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                records.add(line.split(","));
+            }
+        } finally {
+            lines.close();
+        }
+
+        return records;
+    }
+}
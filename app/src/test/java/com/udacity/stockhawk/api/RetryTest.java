@@ -0,0 +1,161 @@
+package com.udacity.stockhawk.api;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.Callable;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RetryTest {
+
+    private final Retry mRetry = new Retry(3, 1, 4);
+
+    @After
+    public void tearDown() {
+        // Clear the flag set by the interruption test.
+        Thread.interrupted();
+    }
+
+    @Test
+    public void returnsResultAfterFailedAttempts() throws IOException {
+        FailingRequest request = new FailingRequest(2);
+
+        assertEquals("result", mRetry.call(request));
+        assertEquals(3, request.calls);
+    }
+
+    @Test
+    public void throwsLastFailureWhenAttemptsRunOut() {
+        FailingRequest request = new FailingRequest(5);
+        try {
+            mRetry.call(request);
+            fail();
+        } catch (IOException exception) {
+            assertEquals("failure 3", exception.getMessage());
+        }
+        assertEquals(3, request.calls);
+    }
+
+    @Test
+    public void doesNotRetryRuntimeException() throws IOException {
+        final IllegalStateException failure = new IllegalStateException();
+        final int[] calls = new int[1];
+        try {
+            mRetry.call(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    calls[0]++;
+                    throw failure;
+                }
+            });
+            fail();
+        } catch (IllegalStateException exception) {
+            assertSame(failure, exception);
+        }
+        assertEquals(1, calls[0]);
+    }
+
+    @Test
+    public void wrapsCheckedException() {
+        final Exception failure = new Exception();
+        try {
+            mRetry.call(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    throw failure;
+                }
+            });
+            fail();
+        } catch (IOException exception) {
+            assertSame(failure, exception.getCause());
+        }
+    }
+
+    @Test
+    public void doesNotRetryWhenInterrupted() {
+        FailingRequest request = new FailingRequest(5);
+        Thread.currentThread().interrupt();
+        try {
+            mRetry.call(request);
+            fail();
+        } catch (IOException exception) {
+            assertEquals(1, request.calls);
+        }
+    }
+
+    @Test
+    public void retriesRequestAfterReadTimeout() throws IOException {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        server.enqueue(new MockResponse().setBody("result"));
+        server.start();
+        try {
+            final URL url = server.url("/quotes.csv").url();
+            String result = mRetry.call(new Callable<String>() {
+                @Override
+                public String call() throws IOException {
+                    // Library sends its requests in the same way, with its connection timeout.
+                    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+                    connection.setConnectTimeout(100);
+                    connection.setReadTimeout(100);
+                    try {
+                        return new BufferedReader(new InputStreamReader(
+                                connection.getInputStream(), "UTF-8")).readLine();
+                    } finally {
+                        connection.disconnect();
+                    }
+                }
+            });
+
+            assertEquals("result", result);
+            assertEquals(2, server.getRequestCount());
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    @Test
+    public void delayIsLimited() {
+        Retry retry = new Retry(10, 100, 1000);
+        for (int attempt = 0; attempt < 30; attempt++) {
+            long limit = Math.min(1000, 100L << Math.min(attempt, 20));
+            for (int i = 0; i < 100; i++) {
+                long delay = retry.getDelay(attempt);
+                assertTrue(delay >= 0 && delay <= limit);
+            }
+        }
+    }
+
+    private static final class FailingRequest implements Callable<String> {
+
+        private final int mFailures;
+        int calls;
+
+        FailingRequest(int failures) {
+            mFailures = failures;
+        }
+
+        @Override
+        public String call() throws IOException {
+            calls++;
+            if (calls <= mFailures) {
+                throw new IOException("failure " + calls);
+            }
+
+            return "result";
+        }
+    }
+}
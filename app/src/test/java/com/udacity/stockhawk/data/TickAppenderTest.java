@@ -0,0 +1,100 @@
+package com.udacity.stockhawk.data;
+
+import com.udacity.stockhawk.data.Contract.Tick;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Statements of the {@link TickAppender} executed by the SQLite JDBC driver, because
+ * Android database is not available in the unit tests. Statements are bound in the same
+ * way as by the appender.
+ */
+public class TickAppenderTest {
+
+    private static final int MAX_TICKS = 3;
+
+    private Connection mConnection;
+    private PreparedStatement mInsert;
+    private PreparedStatement mPrune;
+
+    @Before
+    public void setUp() throws SQLException {
+        mConnection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        Statement statement = mConnection.createStatement();
+        try {
+            statement.execute(DbHelper.CREATE_TICK_TABLE);
+        } finally {
+            statement.close();
+        }
+
+        mInsert = mConnection.prepareStatement(TickAppender.INSERT);
+        mPrune = mConnection.prepareStatement(TickAppender.PRUNE);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        mConnection.close();
+    }
+
+    @Test
+    public void keepsNewestTicksOfEveryStock() throws SQLException {
+        for (int i = 1; i <= 10; i++) {
+            append("AAPL", i, 100 + i);
+        }
+        append("MSFT", 1, 65);
+        append("MSFT", 2, 66);
+
+        assertEquals(Arrays.asList(8L, 9L, 10L), getTimestamps("AAPL"));
+        assertEquals(Arrays.asList(1L, 2L), getTimestamps("MSFT"));
+    }
+
+    @Test
+    public void tickWithSameTimestampIsReplaced() throws SQLException {
+        append("AAPL", 1, 100);
+        append("AAPL", 1, 101);
+
+        assertEquals(Arrays.asList(1L), getTimestamps("AAPL"));
+    }
+
+    private void append(String symbol, long timestamp, double price) throws SQLException {
+        mInsert.setString(1, symbol);
+        mInsert.setLong(2, timestamp);
+        mInsert.setDouble(3, price);
+        mInsert.executeUpdate();
+
+        mPrune.setString(1, symbol);
+        mPrune.setLong(2, MAX_TICKS - 1);
+        mPrune.executeUpdate();
+    }
+
+    private List<Long> getTimestamps(String symbol) throws SQLException {
+        PreparedStatement query = mConnection.prepareStatement("SELECT " + Tick.COLUMN_TIMESTAMP
+                + " FROM " + Tick.TABLE_NAME + " WHERE " + Tick.COLUMN_SYMBOL + " = ?"
+                + " ORDER BY " + Tick.COLUMN_TIMESTAMP);
+        try {
+            query.setString(1, symbol);
+            ResultSet result = query.executeQuery();
+            List<Long> timestamps = new ArrayList<>();
+            while (result.next()) {
+                timestamps.add(result.getLong(1));
+            }
+            return timestamps;
+        } finally {
+            query.close();
+        }
+    }
+}
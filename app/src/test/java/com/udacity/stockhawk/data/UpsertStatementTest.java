@@ -0,0 +1,133 @@
+package com.udacity.stockhawk.data;
+
+import com.udacity.stockhawk.data.Contract.Quote;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Statements of the {@link UpsertStatement} executed by the SQLite JDBC driver, because
+ * Android database is not available in the unit tests. Statements are bound in the same
+ * way as by the upsert.
+ */
+public class UpsertStatementTest {
+
+    private static final String[] KEY = new String[]{Quote.COLUMN_SYMBOL};
+    private static final String[] VALUES = new String[]{
+            Quote.COLUMN_PRICE, Quote.COLUMN_ABSOLUTE_CHANGE};
+
+    private Connection mConnection;
+    private PreparedStatement mInsert;
+    private PreparedStatement mUpdate;
+
+    @Before
+    public void setUp() throws SQLException {
+        mConnection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        Statement statement = mConnection.createStatement();
+        try {
+            // Same constraint as the quotes table, which would replace the row on conflict.
+            statement.execute("CREATE TABLE " + Quote.TABLE_NAME + " ("
+                    + Quote._ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+                    + Quote.COLUMN_SYMBOL + " TEXT NOT NULL, "
+                    + Quote.COLUMN_PRICE + " REAL NOT NULL, "
+                    + Quote.COLUMN_ABSOLUTE_CHANGE + " REAL, "
+                    + "UNIQUE (" + Quote.COLUMN_SYMBOL + ") ON CONFLICT REPLACE);");
+        } finally {
+            statement.close();
+        }
+
+        mInsert = mConnection.prepareStatement(
+                UpsertStatement.createInsert(Quote.TABLE_NAME, KEY, VALUES));
+        mUpdate = mConnection.prepareStatement(
+                UpsertStatement.createUpdate(Quote.TABLE_NAME, KEY, VALUES));
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        mConnection.close();
+    }
+
+    @Test
+    public void newRowIsInserted() throws SQLException {
+        assertTrue(upsert("AAPL", 143.66, 1.73));
+
+        assertEquals(143.66, getPrice("AAPL"), 0.0001);
+    }
+
+    @Test
+    public void unchangedRowIsNotWritten() throws SQLException {
+        upsert("AAPL", 143.66, 1.73);
+
+        assertFalse(upsert("AAPL", 143.66, 1.73));
+    }
+
+    @Test
+    public void changedRowIsUpdatedInPlace() throws SQLException {
+        upsert("AAPL", 143.66, 1.73);
+        long id = getId("AAPL");
+
+        assertTrue(upsert("AAPL", 144.02, 2.09));
+
+        assertEquals(144.02, getPrice("AAPL"), 0.0001);
+        assertEquals(id, getId("AAPL"));
+    }
+
+    @Test
+    public void changeFromNullIsDetected() throws SQLException {
+        upsert("AAPL", 143.66, null);
+
+        assertTrue(upsert("AAPL", 143.66, 1.73));
+        assertFalse(upsert("AAPL", 143.66, 1.73));
+    }
+
+    private boolean upsert(String symbol, double price, Double change) throws SQLException {
+        mInsert.clearParameters();
+        mInsert.setString(1, symbol);
+        mInsert.setDouble(2, price);
+        mInsert.setObject(3, change);
+        if (mInsert.executeUpdate() > 0) {
+            return true;
+        }
+
+        mUpdate.clearParameters();
+        mUpdate.setDouble(1, price);
+        mUpdate.setObject(2, change);
+        mUpdate.setString(3, symbol);
+        mUpdate.setDouble(4, price);
+        mUpdate.setObject(5, change);
+        return mUpdate.executeUpdate() > 0;
+    }
+
+    private double getPrice(String symbol) throws SQLException {
+        return query(Quote.COLUMN_PRICE, symbol).doubleValue();
+    }
+
+    private long getId(String symbol) throws SQLException {
+        return query(Quote._ID, symbol).longValue();
+    }
+
+    private Number query(String column, String symbol) throws SQLException {
+        PreparedStatement query = mConnection.prepareStatement("SELECT " + column
+                + " FROM " + Quote.TABLE_NAME + " WHERE " + Quote.COLUMN_SYMBOL + " = ?");
+        try {
+            query.setString(1, symbol);
+            ResultSet result = query.executeQuery();
+            assertTrue(result.next());
+            return (Number) result.getObject(1);
+        } finally {
+            query.close();
+        }
+    }
+}
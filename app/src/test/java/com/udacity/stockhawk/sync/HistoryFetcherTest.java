@@ -0,0 +1,199 @@
+package com.udacity.stockhawk.sync;
+
+import com.udacity.stockhawk.api.Quote;
+import com.udacity.stockhawk.api.QuoteSource;
+import com.udacity.stockhawk.api.Retry;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.math.BigDecimal;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import yahoofinance.histquotes.HistoricalQuote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HistoryFetcherTest {
+
+    private static final long NOW = 1000000;
+    private static final long FETCH_TIMEOUT = 200;
+
+    /**
+     * Single attempt, so every request is a single call of the source.
+     */
+    private static final Retry NO_RETRY = new Retry(1, 0, 0);
+
+    private final FakeSource mSource = new FakeSource();
+    private final ManualClock mClock = new ManualClock(NOW);
+
+    @Test
+    public void fetchesHistoryOfEveryStock() {
+        HistoryFetcher fetcher = new HistoryFetcher(mSource, 2, Clock.SYSTEM);
+
+        Map<String, List<HistoricalQuote>> result = fetcher.fetch(from("A", "B", "C"), date());
+
+        assertEquals(3, result.size());
+        assertEquals("B", result.get("B").get(0).getSymbol());
+    }
+
+    @Test
+    public void failedStockDoesNotBreakOthers() {
+        mSource.failing.put("B", true);
+        HistoryFetcher fetcher = newFetcher(3);
+
+        Map<String, List<HistoricalQuote>> result = fetcher.fetch(from("A", "B", "C"), date());
+
+        assertEquals(2, result.size());
+        assertFalse(result.containsKey("B"));
+    }
+
+    @Test
+    public void hangingRequestIsAbandonedAtDeadline() {
+        mSource.hanging.put("B", true);
+        HistoryFetcher fetcher = new HistoryFetcher(
+                mSource, 3, Clock.SYSTEM, NO_RETRY, FETCH_TIMEOUT);
+
+        long start = System.nanoTime();
+        Map<String, List<HistoricalQuote>> result = fetcher.fetch(from("A", "B", "C"), date());
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(2, result.size());
+        assertFalse(result.containsKey("B"));
+        assertTrue(elapsed < FakeSource.HANG);
+    }
+
+    @Test
+    public void failingStockIsSkippedUntilBreakerAllowsTrial() {
+        mSource.failing.put("A", true);
+        HistoryFetcher fetcher = newFetcher(1);
+
+        for (int i = 0; i < 3; i++) {
+            fetcher.fetch(from("A"), date());
+        }
+        assertEquals(3, mSource.requests("A"));
+
+        // Breaker is open for an hour.
+        mClock.advance(TimeUnit.MINUTES.toMillis(59));
+        fetcher.fetch(from("A"), date());
+        assertEquals(3, mSource.requests("A"));
+
+        mSource.failing.put("A", false);
+        mClock.advance(TimeUnit.MINUTES.toMillis(1));
+        assertTrue(fetcher.fetch(from("A"), date()).containsKey("A"));
+        assertEquals(4, mSource.requests("A"));
+    }
+
+    @Test
+    public void requestsNotSentBeforeDeadlineAreNotFailures() {
+        // Single worker is blocked by the hanging request, so the other one never starts.
+        mSource.hanging.put("A", true);
+        HistoryFetcher fetcher = new HistoryFetcher(
+                mSource, 1, Clock.SYSTEM, NO_RETRY, FETCH_TIMEOUT);
+
+        for (int i = 0; i < 3; i++) {
+            fetcher.fetch(from("A", "B"), date());
+        }
+        assertEquals(3, mSource.requests("A"));
+        assertEquals(0, mSource.requests("B"));
+
+        // Breaker of the hanging stock is open, the other one is still closed.
+        Map<String, List<HistoricalQuote>> result = fetcher.fetch(from("A", "B"), date());
+        assertEquals(3, mSource.requests("A"));
+        assertTrue(result.containsKey("B"));
+    }
+
+    @Test
+    public void breakersOfRemovedStocksAreForgotten() {
+        mSource.failing.put("A", true);
+        HistoryFetcher fetcher = newFetcher(1);
+        for (int i = 0; i < 3; i++) {
+            fetcher.fetch(from("A"), date());
+        }
+
+        fetcher.retainStocks(Collections.<String>emptySet());
+        fetcher.fetch(from("A"), date());
+
+        assertEquals(4, mSource.requests("A"));
+    }
+
+    private HistoryFetcher newFetcher(int poolSize) {
+        return new HistoryFetcher(mSource, poolSize, mClock, NO_RETRY, FETCH_TIMEOUT);
+    }
+
+    /**
+     * @return map of the symbols in the given order and the same start of their history
+     */
+    private static Map<String, Calendar> from(String... symbols) {
+        Map<String, Calendar> from = new LinkedHashMap<>();
+        for (String symbol : symbols) {
+            from.put(symbol, date());
+        }
+
+        return from;
+    }
+
+    private static Calendar date() {
+        Calendar date = Calendar.getInstance();
+        date.setTimeInMillis(NOW);
+        return date;
+    }
+
+    private static class FakeSource implements QuoteSource {
+
+        /**
+         * Time in milliseconds for which the hanging request blocks.
+         */
+        static final long HANG = TimeUnit.SECONDS.toMillis(10);
+
+        final Map<String, Boolean> failing = new ConcurrentHashMap<>();
+        final Map<String, Boolean> hanging = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> mRequests = new ConcurrentHashMap<>();
+
+        int requests(String symbol) {
+            AtomicInteger requests = mRequests.get(symbol);
+            return requests == null ? 0 : requests.get();
+        }
+
+        @Override
+        public Map<String, Quote> getQuotes(String[] symbols) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<HistoricalQuote> getHistory(String symbol, Calendar from, Calendar to)
+                throws IOException {
+            synchronized (mRequests) {
+                if (!mRequests.containsKey(symbol)) {
+                    mRequests.put(symbol, new AtomicInteger());
+                }
+            }
+            mRequests.get(symbol).incrementAndGet();
+
+            if (Boolean.TRUE.equals(hanging.get(symbol))) {
+                try {
+                    Thread.sleep(HANG);
+                } catch (InterruptedException exception) {
+                    throw new InterruptedIOException("Request has been interrupted");
+                }
+            }
+            if (Boolean.TRUE.equals(failing.get(symbol))) {
+                throw new IOException("Failure of " + symbol);
+            }
+
+            BigDecimal close = BigDecimal.ONE;
+            return Collections.singletonList(
+                    new HistoricalQuote(symbol, from, close, close, close, close, close, 0L));
+        }
+    }
+}
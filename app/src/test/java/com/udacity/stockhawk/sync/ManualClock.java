@@ -0,0 +1,22 @@
+package com.udacity.stockhawk.sync;
+
+/**
+ * Clock which shows the time set by the test.
+ */
+class ManualClock implements Clock {
+
+    private volatile long mTime;
+
+    ManualClock(long time) {
+        mTime = time;
+    }
+
+    void advance(long millis) {
+        mTime += millis;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return mTime;
+    }
+}
@@ -0,0 +1,100 @@
+package com.udacity.stockhawk.sync;
+
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class MarketScheduleTest {
+
+    // 2026-07-03 is a Friday.
+    private static final List<String> HOLIDAYS = Arrays.asList("2026-07-03", "2026-12-25");
+
+    @Test
+    public void regularSessionIsSynchronizedOften() {
+        // Wednesday
+        assertEquals(MarketSchedule.REGULAR_INTERVAL, delayAt("2026-06-17 09:30"));
+        assertEquals(MarketSchedule.REGULAR_INTERVAL, delayAt("2026-06-17 12:00"));
+        assertEquals(MarketSchedule.REGULAR_INTERVAL, delayAt("2026-06-17 15:59"));
+    }
+
+    @Test
+    public void extendedSessionsAreSynchronizedRarely() {
+        assertEquals(MarketSchedule.EXTENDED_INTERVAL, delayAt("2026-06-17 04:00"));
+        assertEquals(MarketSchedule.EXTENDED_INTERVAL, delayAt("2026-06-17 08:00"));
+        assertEquals(MarketSchedule.EXTENDED_INTERVAL, delayAt("2026-06-17 16:00"));
+        assertEquals(MarketSchedule.EXTENDED_INTERVAL, delayAt("2026-06-17 19:59"));
+    }
+
+    @Test
+    public void preMarketDelayEndsAtRegularOpen() {
+        assertEquals(TimeUnit.MINUTES.toMillis(20), delayAt("2026-06-17 09:10"));
+        assertEquals(TimeUnit.MINUTES.toMillis(1), delayAt("2026-06-17 09:29"));
+    }
+
+    @Test
+    public void nightWaitsForPreMarket() {
+        assertEquals(TimeUnit.HOURS.toMillis(2), delayAt("2026-06-17 02:00"));
+        assertEquals(TimeUnit.HOURS.toMillis(8), delayAt("2026-06-17 20:00"));
+    }
+
+    @Test
+    public void weekendWaitsForMonday() {
+        // Friday after the after-hours session, Saturday and Sunday.
+        assertEquals(TimeUnit.HOURS.toMillis(56), delayAt("2026-06-19 20:00"));
+        assertEquals(TimeUnit.HOURS.toMillis(40), delayAt("2026-06-20 12:00"));
+        assertEquals(TimeUnit.HOURS.toMillis(16), delayAt("2026-06-21 12:00"));
+    }
+
+    @Test
+    public void weekendDelayFollowsDaylightSavingTime() {
+        // Clocks are moved forward on Sunday 2026-03-08.
+        assertEquals(TimeUnit.HOURS.toMillis(55), delayAt("2026-03-06 20:00"));
+    }
+
+    @Test
+    public void holidayIsSkipped() {
+        // Thursday before the holiday, and the holiday itself.
+        assertEquals(TimeUnit.HOURS.toMillis(80), delayAt("2026-07-02 20:00"));
+        assertEquals(TimeUnit.HOURS.toMillis(66), delayAt("2026-07-03 10:00"));
+    }
+
+    @Test
+    public void holidayIsTradingDayWithoutCalendar() {
+        MarketSchedule schedule = new MarketSchedule(
+                clockAt("2026-07-03 10:00"), Collections.<String>emptyList());
+        assertEquals(MarketSchedule.REGULAR_INTERVAL, schedule.getDelayToNextSync());
+    }
+
+    private static long delayAt(String time) {
+        return new MarketSchedule(clockAt(time), HOLIDAYS).getDelayToNextSync();
+    }
+
+    /**
+     * @param time in the market time zone (yyyy-MM-dd HH:mm)
+     * @return clock which always returns the given time
+     */
+    private static Clock clockAt(String time) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("America/New_York"));
+        try {
+            final long millis = format.parse(time).getTime();
+            return new Clock() {
+                @Override
+                public long currentTimeMillis() {
+                    return millis;
+                }
+            };
+        } catch (ParseException exception) {
+            throw new IllegalArgumentException(exception);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.udacity.stockhawk.sync;
+
+import com.udacity.stockhawk.api.Quote;
+
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import yahoofinance.histquotes.HistoricalQuote;
+
+/**
+ * Stocks, quotes and history kept in memory.
+ */
+class MemoryQuoteStore implements QuoteStore {
+
+    final Set<String> stocks = new HashSet<>();
+    final Set<String> invalidStocks = new HashSet<>();
+    final Map<String, Quote> quotes = new HashMap<>();
+    final Map<String, TreeMap<Long, Double>> history = new HashMap<>();
+    int fullSyncs;
+
+    MemoryQuoteStore(Collection<String> symbols) {
+        stocks.addAll(symbols);
+    }
+
+    @Override
+    public Set<String> getStocks() {
+        return new HashSet<>(stocks);
+    }
+
+    @Override
+    public void removeInvalidStock(String symbol, boolean remember) {
+        stocks.remove(symbol);
+        if (remember) {
+            invalidStocks.add(symbol);
+        }
+    }
+
+    @Override
+    public Map<String, Long> getNewestStoredQuotes(Calendar windowStart,
+                                                   Collection<String> symbols) {
+        Map<String, Long> newest = new HashMap<>();
+        for (Map.Entry<String, TreeMap<Long, Double>> stock : history.entrySet()) {
+            if (symbols == null || symbols.contains(stock.getKey())) {
+                newest.put(stock.getKey(), stock.getValue().lastKey());
+            }
+        }
+
+        return newest;
+    }
+
+    @Override
+    public void store(Collection<Quote> quotes, Map<String, List<HistoricalQuote>> histories,
+                      Calendar startOfWeek) {
+        for (Quote quote : quotes) {
+            this.quotes.put(quote.getSymbol(), quote);
+
+            List<HistoricalQuote> stockHistory = histories.get(quote.getSymbol());
+            if (stockHistory == null) {
+                continue;
+            }
+
+            TreeMap<Long, Double> stored = history.get(quote.getSymbol());
+            if (stored == null) {
+                stored = new TreeMap<>();
+                history.put(quote.getSymbol(), stored);
+            }
+            for (HistoricalQuote historicalQuote : stockHistory) {
+                stored.put(historicalQuote.getDate().getTimeInMillis(),
+                        historicalQuote.getClose().doubleValue());
+            }
+            stored.put(startOfWeek.getTimeInMillis(), (double) quote.getPrice());
+        }
+    }
+
+    @Override
+    public void finishFullSync(Calendar windowStart) {
+        fullSyncs++;
+    }
+}
@@ -0,0 +1,169 @@
+package com.udacity.stockhawk.sync;
+
+import com.udacity.stockhawk.api.Quote;
+import com.udacity.stockhawk.api.QuoteSource;
+import com.udacity.stockhawk.api.Retry;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import yahoofinance.histquotes.HistoricalQuote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class QuoteSyncTest {
+
+    private static final Retry NO_RETRY = new Retry(1, 0, 0);
+
+    private final FakeSource mSource = new FakeSource();
+
+    @Test
+    public void invalidStocksAreRemoved() {
+        MemoryQuoteStore store = new MemoryQuoteStore(Arrays.asList("AAPL", "INVALID"));
+
+        assertTrue(newSync(timeAt("2017-04-12 12:00")).sync(store, null));
+
+        assertEquals(Collections.singleton("AAPL"), store.stocks);
+        assertEquals(Collections.singleton("AAPL"), store.quotes.keySet());
+        // Stock dropped by the full synchronization is not blocked.
+        assertTrue(store.invalidStocks.isEmpty());
+        assertEquals(1, store.fullSyncs);
+    }
+
+    @Test
+    public void invalidAddedStockIsRemembered() {
+        MemoryQuoteStore store = new MemoryQuoteStore(Arrays.asList("AAPL", "INVALID"));
+
+        assertTrue(newSync(timeAt("2017-04-12 12:00"))
+                .sync(store, Collections.singleton("INVALID")));
+
+        assertEquals(Collections.singleton("INVALID"), store.invalidStocks);
+        assertTrue(store.quotes.isEmpty());
+        assertEquals(0, store.fullSyncs);
+    }
+
+    @Test
+    public void emptyResponseDoesNotRemoveStocks() {
+        MemoryQuoteStore store = new MemoryQuoteStore(Arrays.asList("INVALID", "UNKNOWN"));
+
+        assertFalse(newSync(timeAt("2017-04-12 12:00")).sync(store, null));
+
+        assertEquals(2, store.stocks.size());
+    }
+
+    @Test
+    public void storedHistoryIsNotDownloadedAgain() {
+        QuoteSync sync = newSync(timeAt("2017-04-12 12:00"));
+        MemoryQuoteStore store = new MemoryQuoteStore(Collections.singleton("AAPL"));
+
+        sync.sync(store, null);
+        sync.sync(store, null);
+
+        assertEquals(1, mSource.historyFrom.size());
+    }
+
+    @Test
+    public void wholeHistoryRequestIsSameDuringWeek() {
+        newSync(timeAt("2017-04-11 09:00"))
+                .sync(new MemoryQuoteStore(Collections.singleton("AAPL")), null);
+        newSync(timeAt("2017-04-14 18:00"))
+                .sync(new MemoryQuoteStore(Collections.singleton("AAPL")), null);
+
+        // Both requests start at the same Monday, so the second one can be cached.
+        assertEquals(2, mSource.historyFrom.size());
+        Calendar from = mSource.historyFrom.get(0);
+        assertEquals(from.getTimeInMillis(), mSource.historyFrom.get(1).getTimeInMillis());
+        assertEquals(Calendar.MONDAY, from.get(Calendar.DAY_OF_WEEK));
+        assertEquals(2015, from.get(Calendar.YEAR));
+    }
+
+    @Test
+    public void quoteRequestsAreSuspendedAfterFailures() {
+        ManualClock clock = new ManualClock(timeAt("2017-04-12 12:00"));
+        QuoteSync sync = new QuoteSync(mSource, clock, NO_RETRY,
+                new HistoryFetcher(mSource, 1, clock, NO_RETRY, TimeUnit.SECONDS.toMillis(1)));
+        MemoryQuoteStore store = new MemoryQuoteStore(Collections.singleton("AAPL"));
+
+        mSource.failing = true;
+        for (int i = 0; i < 3; i++) {
+            assertFalse(sync.sync(store, null));
+        }
+        assertEquals(3, mSource.quoteRequests);
+
+        mSource.failing = false;
+        assertFalse(sync.sync(store, null));
+        assertEquals(3, mSource.quoteRequests);
+
+        clock.advance(TimeUnit.MINUTES.toMillis(15));
+        assertTrue(sync.sync(store, null));
+        assertEquals(4, mSource.quoteRequests);
+    }
+
+    private QuoteSync newSync(long time) {
+        Clock clock = new ManualClock(time);
+        return new QuoteSync(mSource, clock, NO_RETRY,
+                new HistoryFetcher(mSource, 1, clock, NO_RETRY, TimeUnit.SECONDS.toMillis(1)));
+    }
+
+    private static long timeAt(String time) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("America/New_York"));
+        try {
+            return format.parse(time).getTime();
+        } catch (ParseException exception) {
+            throw new IllegalArgumentException(exception);
+        }
+    }
+
+    /**
+     * Source which knows only the AAPL stock and records requested history ranges.
+     */
+    private static class FakeSource implements QuoteSource {
+
+        final List<Calendar> historyFrom = Collections.synchronizedList(new ArrayList<Calendar>());
+        volatile boolean failing;
+        int quoteRequests;
+
+        @Override
+        public Map<String, Quote> getQuotes(String[] symbols) throws IOException {
+            quoteRequests++;
+            if (failing) {
+                throw new IOException("Failure");
+            }
+
+            Map<String, Quote> quotes = new HashMap<>();
+            for (String symbol : symbols) {
+                if (symbol.equals("AAPL")) {
+                    quotes.put(symbol, new Quote(symbol, 143.66f, 1.73f, 1.22f));
+                }
+            }
+
+            return quotes;
+        }
+
+        @Override
+        public List<HistoricalQuote> getHistory(String symbol, Calendar from, Calendar to) {
+            historyFrom.add(from);
+
+            BigDecimal close = BigDecimal.TEN;
+            return Collections.singletonList(
+                    new HistoricalQuote(symbol, to, close, close, close, close, close, 0L));
+        }
+    }
+}
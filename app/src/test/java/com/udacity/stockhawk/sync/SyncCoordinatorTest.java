@@ -0,0 +1,121 @@
+package com.udacity.stockhawk.sync;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SyncCoordinatorTest {
+
+    private static final long NOW = 1000000;
+
+    private SyncCoordinator mCoordinator;
+
+    @Before
+    public void setUp() {
+        mCoordinator = new SyncCoordinator();
+    }
+
+    @Test
+    public void rapidFullSyncRequestsCauseSingleRun() {
+        assertEquals(SyncCoordinator.STARTED, mCoordinator.requestFullSync(NOW));
+        for (int i = 1; i < 10; i++) {
+            assertEquals(SyncCoordinator.JOINED, mCoordinator.requestFullSync(NOW + i));
+        }
+
+        SyncCoordinator.Run run = mCoordinator.beginRun(NOW + 10);
+        assertNotNull(run);
+        assertTrue(run.full);
+
+        // Requests which arrive while the full run is running join it.
+        for (int i = 0; i < 10; i++) {
+            assertEquals(SyncCoordinator.JOINED, mCoordinator.requestFullSync(NOW + 20 + i));
+        }
+        mCoordinator.finishRun(run, true);
+
+        // Service has been started once for every request, but there is nothing more to do.
+        assertNull(mCoordinator.beginRun(NOW + 40));
+    }
+
+    @Test
+    public void fullSyncIsThrottledAfterSuccessfulRun() {
+        mCoordinator.requestFullSync(NOW);
+        SyncCoordinator.Run run = mCoordinator.beginRun(NOW);
+        mCoordinator.finishRun(run, true);
+
+        assertEquals(SyncCoordinator.THROTTLED, mCoordinator.requestFullSync(
+                NOW + SyncCoordinator.MIN_FULL_SYNC_INTERVAL - 1));
+        assertEquals(SyncCoordinator.STARTED, mCoordinator.requestFullSync(
+                NOW + SyncCoordinator.MIN_FULL_SYNC_INTERVAL));
+    }
+
+    @Test
+    public void fullSyncIsNotThrottledAfterFailedRun() {
+        mCoordinator.requestFullSync(NOW);
+        SyncCoordinator.Run run = mCoordinator.beginRun(NOW);
+        mCoordinator.finishRun(run, false);
+
+        assertEquals(SyncCoordinator.STARTED, mCoordinator.requestFullSync(NOW + 1));
+    }
+
+    @Test
+    public void symbolsAreMergedIntoQueuedRun() {
+        assertEquals(SyncCoordinator.STARTED,
+                mCoordinator.requestSymbols(Collections.singleton("AAPL")));
+        assertEquals(SyncCoordinator.JOINED,
+                mCoordinator.requestSymbols(Collections.singleton("GOOG")));
+
+        SyncCoordinator.Run run = mCoordinator.beginRun(NOW);
+        assertFalse(run.full);
+        assertEquals(2, run.symbols.size());
+        assertTrue(run.symbols.contains("AAPL"));
+        assertTrue(run.symbols.contains("GOOG"));
+    }
+
+    @Test
+    public void fullSyncTurnsQueuedSymbolRunIntoFullRun() {
+        mCoordinator.requestSymbols(Collections.singleton("AAPL"));
+        assertEquals(SyncCoordinator.JOINED, mCoordinator.requestFullSync(NOW));
+
+        SyncCoordinator.Run run = mCoordinator.beginRun(NOW);
+        assertTrue(run.full);
+    }
+
+    @Test
+    public void fullSyncIsQueuedAfterRunningSymbolRun() {
+        mCoordinator.requestSymbols(Collections.singleton("AAPL"));
+        SyncCoordinator.Run symbolRun = mCoordinator.beginRun(NOW);
+        assertFalse(symbolRun.full);
+
+        // Pull to refresh while the added stock is synchronized.
+        assertEquals(SyncCoordinator.STARTED, mCoordinator.requestFullSync(NOW + 1));
+        assertEquals(SyncCoordinator.JOINED, mCoordinator.requestFullSync(NOW + 2));
+        mCoordinator.finishRun(symbolRun, true);
+
+        SyncCoordinator.Run fullRun = mCoordinator.beginRun(NOW + 3);
+        assertNotNull(fullRun);
+        assertTrue(fullRun.full);
+        mCoordinator.finishRun(fullRun, true);
+        assertNull(mCoordinator.beginRun(NOW + 4));
+    }
+
+    @Test
+    public void symbolsRequestedDuringRunStartNextRun() {
+        mCoordinator.requestFullSync(NOW);
+        SyncCoordinator.Run run = mCoordinator.beginRun(NOW);
+
+        assertEquals(SyncCoordinator.STARTED,
+                mCoordinator.requestSymbols(Collections.singleton("AAPL")));
+        mCoordinator.finishRun(run, true);
+
+        SyncCoordinator.Run next = mCoordinator.beginRun(NOW + 1);
+        assertFalse(next.full);
+        assertEquals(Collections.singleton("AAPL"), next.symbols);
+    }
+}
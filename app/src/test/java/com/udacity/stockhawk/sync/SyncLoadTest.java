@@ -0,0 +1,142 @@
+package com.udacity.stockhawk.sync;
+
+import com.udacity.stockhawk.api.Quote;
+import com.udacity.stockhawk.api.QuoteSource;
+import com.udacity.stockhawk.api.ReplayQuoteSource;
+import com.udacity.stockhawk.api.Retry;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import yahoofinance.histquotes.HistoricalQuote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Synchronization of a large watchlist, replayed from the fixtures without any network
+ * access and stored in memory.
+ */
+public class SyncLoadTest {
+
+    /**
+     * Wednesday 2017-04-12 noon in New York, the week after the last recorded quote.
+     */
+    private static final long NOW = 1492012800000L;
+
+    private static final int SYMBOLS = 1000;
+
+    /**
+     * Same as the sync_history_pool_size resource.
+     */
+    private static final int POOL_SIZE = 4;
+
+    private static final long LATENCY = 2;
+    private static final double FAILURE_RATE = 0.01;
+    private static final long SEED = 42;
+
+    private static final int WEEKS_OF_HISTORY = 104;
+
+    /**
+     * Same attempts as the synchronization, but without long delays.
+     */
+    private static final Retry RETRY = new Retry(3, 1, 4);
+
+    @Test
+    public void synchronizesThousandStocksOffline() throws IOException {
+        List<String[]> quotes = readFixture("replay/quotes.csv");
+        List<String[]> history = readFixture("replay/history.csv");
+
+        // Recorded stocks are repeated under different symbols, up to the size of the watchlist.
+        List<String> symbols = new ArrayList<>();
+        StringBuilder quotesFixture = new StringBuilder();
+        StringBuilder historyFixture = new StringBuilder();
+        for (int i = 0; symbols.size() < SYMBOLS; i++) {
+            String[] quote = quotes.get(i % quotes.size());
+            String symbol = quote[0] + "." + i;
+            symbols.add(symbol);
+            quotesFixture.append(symbol).append(',').append(quote[1]).append(',')
+                    .append(quote[2]).append('\n');
+
+            for (String[] record : history) {
+                if (record[0].equals(quote[0])) {
+                    historyFixture.append(symbol).append(',').append(record[1]).append(',')
+                            .append(record[2]).append('\n');
+                }
+            }
+        }
+
+        final ReplayQuoteSource replay = new ReplayQuoteSource(
+                new StringReader(quotesFixture.toString()),
+                new StringReader(historyFixture.toString()),
+                LATENCY, FAILURE_RATE, SEED);
+        final AtomicInteger historyRequests = new AtomicInteger();
+        QuoteSource source = new QuoteSource() {
+            @Override
+            public Map<String, Quote> getQuotes(String[] symbols) throws IOException {
+                return replay.getQuotes(symbols);
+            }
+
+            @Override
+            public List<HistoricalQuote> getHistory(String symbol, Calendar from, Calendar to)
+                    throws IOException {
+                historyRequests.incrementAndGet();
+                return replay.getHistory(symbol, from, to);
+            }
+        };
+
+        Clock clock = new ManualClock(NOW);
+        QuoteSync sync = new QuoteSync(source, clock, RETRY,
+                new HistoryFetcher(source, POOL_SIZE, clock, RETRY, TimeUnit.MINUTES.toMillis(1)));
+        MemoryQuoteStore store = new MemoryQuoteStore(symbols);
+
+        assertTrue(sync.sync(store, null));
+
+        assertEquals(SYMBOLS, store.stocks.size());
+        assertEquals(SYMBOLS, store.quotes.size());
+        assertEquals(1, store.fullSyncs);
+        // Failed requests are retried, so only a stock whose every attempt has failed
+        // can be missing. Current week is added to the downloaded weeks.
+        assertTrue(store.history.size() >= SYMBOLS * 0.99);
+        for (TreeMap<Long, Double> stockHistory : store.history.values()) {
+            assertEquals(WEEKS_OF_HISTORY + 1, stockHistory.size());
+        }
+
+        // Next synchronization in the same week downloads only the missing histories.
+        int missing = SYMBOLS - store.history.size();
+        historyRequests.set(0);
+        assertTrue(sync.sync(store, null));
+        assertTrue(historyRequests.get() >= missing);
+        assertTrue(historyRequests.get() <= missing * 3);
+        assertEquals(2, store.fullSyncs);
+    }
+
+    private static List<String[]> readFixture(String name) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                SyncLoadTest.class.getClassLoader().getResourceAsStream(name), "UTF-8"));
+        List<String[]> records = new ArrayList<>();
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    records.add(line.split(","));
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        return records;
+    }
+}
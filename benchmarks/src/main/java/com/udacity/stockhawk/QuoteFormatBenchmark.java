@@ -0,0 +1,95 @@
+package com.udacity.stockhawk;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.DateFormat;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting of the quote values and dates, e.g. while the list, widget or chart labels
+ * are bound. Benchmarks run in a few threads, because formatters are cached per thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class QuoteFormatBenchmark {
+
+    // Zero values are quite common (e.g. outside market hours).
+    private static final float[] VALUES = {143.66f, 0f, -1.25f, 0.0077f, 824.67f, 0f, -0.013f};
+
+    private static final TimeZone TIME_ZONE = TimeZone.getTimeZone("America/New_York");
+
+    /**
+     * Weekly quotes of two years.
+     */
+    private static final int CHART_QUOTES = 2 * 52;
+
+    private int mIndex;
+    private long mTimestamp = 1491177600000L;
+
+    @Benchmark
+    public String formatPrice() {
+        return QuoteFormat.formatPrice(nextValue());
+    }
+
+    @Benchmark
+    public String formatAbsoluteChange() {
+        return QuoteFormat.formatAbsoluteChange(nextValue());
+    }
+
+    @Benchmark
+    public String formatPercentageChange() {
+        return QuoteFormat.formatPercentageChange(nextValue());
+    }
+
+    @Benchmark
+    public String formatDateStyle() {
+        return QuoteFormat.formatDate(nextTimestamp(), TIME_ZONE, DateFormat.SHORT);
+    }
+
+    @Benchmark
+    public String formatDatePattern() {
+        return QuoteFormat.formatDate(nextTimestamp(), TIME_ZONE, "yyyy-MM-dd HH:mm:ss");
+    }
+
+    /**
+     * Labels of the chart with two years of weekly quotes, which are formatted at once
+     * while the details screen is prepared.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String[] formatChartLabels() {
+        String[] labels = new String[CHART_QUOTES];
+        long timestamp = 1491177600000L;
+        for (int index = labels.length - 1; index >= 0; index--) {
+            labels[index] = QuoteFormat.formatDate(timestamp, TIME_ZONE, DateFormat.SHORT);
+            timestamp -= TimeUnit.DAYS.toMillis(7);
+        }
+
+        return labels;
+    }
+
+    private float nextValue() {
+        mIndex = (mIndex + 1) % VALUES.length;
+        return VALUES[mIndex];
+    }
+
+    private long nextTimestamp() {
+        mTimestamp += TimeUnit.DAYS.toMillis(7);
+        return mTimestamp;
+    }
+}
@@ -0,0 +1,85 @@
+package com.udacity.stockhawk.api;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quotes of a large watchlist fetched in chunks of different sizes. Requests are replayed
+ * from the recorded quotes with a fixed latency, so the time of the fetch shows the cost
+ * of the additional requests, which is reduced by the pipeline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkedQuoteSourceBenchmark {
+
+    /**
+     * Latency of a single quotes request in milliseconds.
+     */
+    private static final long LATENCY = 20;
+
+    private static final int SYMBOLS = 1000;
+
+    @Param({"50", "200", "1000"})
+    public int mChunkSize;
+
+    private QuoteSource mSource;
+    private String[] mSymbols;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<String[]> recorded = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                getClass().getClassLoader().getResourceAsStream("replay/quotes.csv"), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    recorded.add(line.split(","));
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        // Recorded stocks are repeated under different symbols, up to the size of the watchlist.
+        mSymbols = new String[SYMBOLS];
+        StringBuilder quotes = new StringBuilder();
+        for (int i = 0; i < SYMBOLS; i++) {
+            String[] quote = recorded.get(i % recorded.size());
+            mSymbols[i] = quote[0] + "." + i;
+            quotes.append(mSymbols[i]).append(',').append(quote[1]).append(',')
+                    .append(quote[2]).append('\n');
+        }
+
+        ReplayQuoteSource replay = new ReplayQuoteSource(
+                new StringReader(quotes.toString()), new StringReader(""), LATENCY, 0, 0);
+        mSource = new ChunkedQuoteSource(replay, mChunkSize);
+    }
+
+    @Benchmark
+    public Map<String, Quote> getQuotes() throws IOException {
+        return mSource.getQuotes(mSymbols);
+    }
+}
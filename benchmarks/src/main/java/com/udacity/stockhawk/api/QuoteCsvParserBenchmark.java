@@ -0,0 +1,105 @@
+package com.udacity.stockhawk.api;
+
+import au.com.bytecode.opencsv.CSVParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the quotes response, compared with the line by line opencsv parsing
+ * which has been used by the library.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuoteCsvParserBenchmark {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * Number of the stocks in the response (default watchlist, one chunk and a large list).
+     */
+    @Param({"4", "50", "1000"})
+    public int mStocks;
+
+    private byte[] mResponse;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(mStocks);
+        StringBuilder response = new StringBuilder();
+        for (int i = 0; i < mStocks; i++) {
+            // Every tenth symbol is invalid, and invalid symbols with special characters
+            // are returned as empty lines.
+            if (i % 20 == 9) {
+                response.append("\"XX").append(i).append("\",N/A,N/A,\"N/A\"\r\n");
+            } else if (i % 20 == 19) {
+                response.append("\r\n");
+            } else {
+                float price = 10 + random.nextInt(100000) / 100f;
+                float change = (random.nextInt(2000) - 1000) / 100f;
+                response.append("\"SYM").append(i).append("\",")
+                        .append(price).append(',')
+                        .append(change >= 0 ? "+" : "").append(change).append(",\"")
+                        .append(change >= 0 ? "+" : "").append(change / price * 100)
+                        .append("%\"\r\n");
+            }
+        }
+
+        mResponse = response.toString().getBytes(UTF_8);
+    }
+
+    @Benchmark
+    public Map<String, Quote> streamingParser() throws IOException {
+        return QuoteCsvParser.parse(new ByteArrayInputStream(mResponse));
+    }
+
+    @Benchmark
+    public Map<String, Quote> openCsvParser() throws IOException {
+        CSVParser parser = new CSVParser();
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(mResponse), UTF_8));
+        Map<String, Quote> quotes = new HashMap<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            String[] fields = parser.parseLine(line);
+            try {
+                float price = Float.parseFloat(fields[1]);
+                float change = Float.parseFloat(fields[2]);
+                float changeInPercent = Float.parseFloat(
+                        fields[3].substring(0, fields[3].length() - 1));
+                quotes.put(fields[0], new Quote(fields[0], price, change, changeInPercent));
+            } catch (NumberFormatException exception) {
+                // Invalid symbol.
+            }
+        }
+
+        return quotes;
+    }
+}
@@ -0,0 +1,84 @@
+package com.udacity.stockhawk.data;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the history string (legacy format of the quotes table, which is still parsed
+ * when database is upgraded).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceSeriesBenchmark {
+
+    /**
+     * Weekly history of 2 and 10 years, and daily history of 10 years.
+     */
+    @Param({"WEEKLY_2Y", "WEEKLY_10Y", "DAILY_10Y"})
+    public String mHistory;
+
+    private String mHistoryString;
+
+    @Setup
+    public void setUp() {
+        int quotes;
+        long step;
+        switch (mHistory) {
+            case "WEEKLY_2Y":
+                quotes = 2 * 52;
+                step = TimeUnit.DAYS.toMillis(7);
+                break;
+            case "WEEKLY_10Y":
+                quotes = 10 * 52;
+                step = TimeUnit.DAYS.toMillis(7);
+                break;
+            case "DAILY_10Y":
+                quotes = 10 * 252;
+                step = TimeUnit.DAYS.toMillis(1);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown history: " + mHistory);
+        }
+
+        mHistoryString = createHistory(quotes, step);
+    }
+
+    @Benchmark
+    public PriceSeries parse() {
+        return PriceSeries.parse(mHistoryString);
+    }
+
+    /**
+     * Create a history in the same format as it has been stored ("timestamp, close" lines,
+     * from the newest quote), with a random walk of the prices.
+     */
+    private static String createHistory(int quotes, long step) {
+        Random random = new Random(quotes);
+        StringBuilder history = new StringBuilder();
+        long timestamp = 1491177600000L;
+        double close = 143.66;
+        for (int i = 0; i < quotes; i++) {
+            history.append(timestamp).append(", ").append((float) close).append('\n');
+            timestamp -= step;
+            close = Math.max(1, close * (1 + random.nextGaussian() * 0.02));
+        }
+
+        return history.toString();
+    }
+}
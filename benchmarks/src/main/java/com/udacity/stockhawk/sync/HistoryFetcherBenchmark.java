@@ -0,0 +1,104 @@
+package com.udacity.stockhawk.sync;
+
+import com.udacity.stockhawk.api.ReplayQuoteSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import yahoofinance.histquotes.HistoricalQuote;
+
+/**
+ * History of a watchlist fetched with different sizes of the worker pool. Requests are
+ * replayed from the recorded history with a fixed latency, so the time of the fetch shows
+ * how many requests are waiting for the network at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoryFetcherBenchmark {
+
+    /**
+     * Latency of a single history request in milliseconds.
+     */
+    private static final long LATENCY = 20;
+
+    /**
+     * Stock of the recorded history.
+     */
+    private static final String RECORDED_SYMBOL = "AAPL";
+
+    @Param({"1", "2", "4", "8"})
+    public int mPoolSize;
+
+    @Param({"15", "60"})
+    public int mStocks;
+
+    private HistoryFetcher mFetcher;
+    private Map<String, Calendar> mFrom;
+    private Calendar mTo;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Recorded history is repeated under different symbols, up to the size of the watchlist.
+        StringBuilder history = new StringBuilder();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                getClass().getClassLoader().getResourceAsStream("replay/history.csv"), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith(RECORDED_SYMBOL + ",")) {
+                    continue;
+                }
+
+                for (int i = 0; i < mStocks; i++) {
+                    history.append(RECORDED_SYMBOL).append(i)
+                            .append(line.substring(RECORDED_SYMBOL.length())).append('\n');
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        ReplayQuoteSource source = new ReplayQuoteSource(
+                new StringReader(""), new StringReader(history.toString()), LATENCY, 0, 0);
+        mFetcher = new HistoryFetcher(source, mPoolSize, Clock.SYSTEM);
+
+        Calendar from = Calendar.getInstance();
+        from.clear();
+        from.set(2015, Calendar.APRIL, 6);
+        mTo = Calendar.getInstance();
+        mTo.clear();
+        mTo.set(2017, Calendar.APRIL, 9);
+        mFrom = new HashMap<>();
+        for (int i = 0; i < mStocks; i++) {
+            mFrom.put(RECORDED_SYMBOL + i, from);
+        }
+    }
+
+    @Benchmark
+    public Map<String, List<HistoricalQuote>> fetch() {
+        return mFetcher.fetch(mFrom, mTo);
+    }
+}